@@ -7,13 +7,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.util.HeaderConstant;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -24,48 +30,67 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(
+    public Mono<ResponseEntity<Object>> getBookings(
             @RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        return bookingClient.getBookings(userId, state, from, size, after);
     }
 
     @GetMapping(path = "/owner")
-    public ResponseEntity<Object> getBookingsByOwner(
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(
             @RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking by owner with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsByOwner(userId, state, from, size);
+        log.info("Get booking by owner with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        return bookingClient.getBookingsByOwner(userId, state, from, size, after);
+    }
+
+    @GetMapping(path = "/owner/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportByOwner(
+            @RequestHeader(HeaderConstant.USER_ID_HEADER) long userId) {
+        log.info("Export bookings by owner, userId={}", userId);
+        return bookingClient.exportByOwner(userId);
     }
 
     @PatchMapping(path = "/{bookingId}")
-    public ResponseEntity<Object> updateBook(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
-                                             @PathVariable(value = "bookingId") Long bookingId,
-                                             @RequestParam(value = "approved") boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBook(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+                                                   @PathVariable(value = "bookingId") Long bookingId,
+                                                   @RequestParam(value = "approved") boolean approved) {
         log.info("Response for booking с id={}, userId={}", bookingId, userId);
         return bookingClient.updateBook(userId, bookingId, approved);
     }
 
+    @PatchMapping(path = "/batch")
+    public Mono<ResponseEntity<Object>> updateBooks(
+            @RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+            @RequestParam(value = "approved") boolean approved,
+            @RequestBody @NotEmpty @Size(max = 1000) List<@NotNull @Positive Long> bookingIds) {
+        log.info("Response for {} bookings, userId={}, approved={}", bookingIds.size(), userId, approved);
+        return bookingClient.updateBooks(userId, bookingIds, approved);
+    }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
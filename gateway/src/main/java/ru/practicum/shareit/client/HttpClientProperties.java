@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.DeprecatedConfigurationProperty;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the gateway's HTTP client to shareit-server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    /** Maximum number of open connections to the server, i.e. of requests in flight. */
+    private int maxConnections = 200;
+    /** Maximum number of requests waiting for a free connection; further requests are rejected at once. */
+    private int pendingAcquireMaxCount = 1000;
+    /** Time a request may wait for a free connection. */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+    /** Time to establish a TCP connection. */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /** Maximum silence between two packets of a response. */
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /** Idle connections are closed after this time. */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    /** Connections are closed after this time even when busy, so that they are spread over server restarts. */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /*
+     * Names of the former Apache HttpClient pool, kept so that existing configurations still size the new one.
+     * The gateway has a single route to the server, so the total and per-route limits are the same thing.
+     */
+
+    @Deprecated
+    @DeprecatedConfigurationProperty(replacement = "shareit-server.http.max-connections")
+    public int getMaxTotal() {
+        return maxConnections;
+    }
+
+    @Deprecated
+    public void setMaxTotal(int maxTotal) {
+        this.maxConnections = maxTotal;
+    }
+
+    @Deprecated
+    @DeprecatedConfigurationProperty(replacement = "shareit-server.http.max-connections")
+    public int getMaxPerRoute() {
+        return maxConnections;
+    }
+
+    @Deprecated
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxConnections = maxPerRoute;
+    }
+
+    @Deprecated
+    @DeprecatedConfigurationProperty(replacement = "shareit-server.http.pending-acquire-timeout")
+    public Duration getConnectionRequestTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    @Deprecated
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.pendingAcquireTimeout = connectionRequestTimeout;
+    }
+}
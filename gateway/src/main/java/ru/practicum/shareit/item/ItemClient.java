@@ -2,15 +2,15 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,33 +18,40 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final ItemSearchCache itemSearchCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ItemSearchCache itemSearchCache) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .build()
         );
+        this.itemSearchCache = itemSearchCache;
     }
 
     //save
-    public ResponseEntity<Object> saveItem(long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<Object>> saveItem(long userId, ItemRequestDto requestDto) {
+        return itemSearchCache.invalidateOnSuccess(post("", userId, requestDto));
+    }
+
+    //saveAll
+    public Mono<ResponseEntity<Object>> saveItems(long userId, List<ItemRequestDto> requestDtos) {
+        return itemSearchCache.invalidateOnSuccess(post("/batch", userId, requestDtos));
     }
 
     //update
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemRequestDto requestDto) {
-        return patch("/" + itemId, userId, requestDto);
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemRequestDto requestDto) {
+        return itemSearchCache.invalidateOnSuccess(patch("/" + itemId, userId, requestDto));
     }
 
     //getById
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
     //getListByUserId
-    public ResponseEntity<Object> getItemByOwner(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getItemByOwner(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -53,17 +60,18 @@ public class ItemClient extends BaseClient {
     }
 
     //search(text, pageable)
-    public ResponseEntity<Object> search(String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> search(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", parameters);
+        return itemSearchCache.get(text, from, size,
+                () -> get("/search?text={text}&from={from}&size={size}", parameters));
     }
 
     //saveComment
-    public ResponseEntity<Object> saveComment(long userId, long itemId, CommentRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> saveComment(long userId, long itemId, CommentRequestDto requestDto) {
         return post("/" + itemId + "/comment", userId, requestDto);
     }
 }
@@ -6,17 +6,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.util.HeaderConstant;
 import ru.practicum.shareit.util.Marker;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.Collections;
+import java.util.List;
 
 @Controller
+@Validated
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Slf4j
@@ -25,29 +30,39 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> saveItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
-                                           @RequestBody @Validated({Marker.OnCreate.class}) ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> saveItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
+                                                 @RequestBody @Validated({Marker.OnCreate.class}) ItemRequestDto requestDto) {
         log.info("Post запрос от пользователя с id - {}", userId);
         return itemClient.saveItem(userId, requestDto);
     }
 
+    @PostMapping(path = "/batch")
+    @Validated({Marker.OnCreate.class})
+    public Mono<ResponseEntity<Object>> saveItems(
+            @RequestHeader(HeaderConstant.USER_ID_HEADER) long userId,
+            @RequestBody @NotEmpty(groups = Marker.OnCreate.class) @Size(max = 1000, groups = Marker.OnCreate.class)
+            List<@Valid ItemRequestDto> requestDtos) {
+        log.info("Post запрос на добавление {} предметов от пользователя с id - {}", requestDtos.size(), userId);
+        return itemClient.saveItems(userId, requestDtos);
+    }
+
     @PatchMapping(path = "/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
-                                             @PathVariable(value = "id") Long id,
-                                             @RequestBody @Validated({Marker.OnUpdate.class}) ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+                                                   @PathVariable(value = "id") Long id,
+                                                   @RequestBody @Validated({Marker.OnUpdate.class}) ItemRequestDto requestDto) {
         log.info("Patch запрос от пользователя с id - {} для предмета с id {}", userId, id);
         return itemClient.updateItem(userId, id, requestDto);
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Object> getItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
-                                          @PathVariable(value = "id") Long id) {
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+                                                @PathVariable(value = "id") Long id) {
         log.info("Get запрос от пользователя с id - {} для предмета с id {}", userId, id);
         return itemClient.getItem(userId, id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemByOwner(
+    public Mono<ResponseEntity<Object>> getItemByOwner(
             @RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
@@ -56,20 +71,20 @@ public class ItemController {
     }
 
     @GetMapping(path = "/search")
-    public ResponseEntity<Object> search(@RequestParam(value = "text") String text,
-                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> search(@RequestParam(value = "text") String text,
+                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         if (text.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return Mono.just(ResponseEntity.ok(Collections.emptyList()));
         }
         log.info("Get запрос с текстом - {}, from - {}, size - {}", text, from, size);
         return itemClient.search(text, from, size);
     }
 
     @PostMapping(path = "/{id}/comment")
-    public ResponseEntity<Object> saveComment(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
-                                              @PathVariable(value = "id") Long id,
-                                              @RequestBody @Valid CommentRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> saveComment(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+                                                    @PathVariable(value = "id") Long id,
+                                                    @RequestBody @Valid CommentRequestDto requestDto) {
         log.info("Post запрос на добавление комментария от пользователя с id - {} для предмета с id {}", userId, id);
         return itemClient.saveComment(userId, id, requestDto);
     }
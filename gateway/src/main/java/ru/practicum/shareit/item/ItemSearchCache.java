@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Search results by (text, from, size). The search needs no user header, so a result is shared by all users.
+ * Concurrent identical searches wait for one upstream call. Only successful responses are kept, for
+ * {@code ttl}; the cache is cleared after item writes passed through this gateway and on the server's request
+ * ({@link ItemSearchCacheEndpoint}).
+ */
+@Component
+public class ItemSearchCache {
+
+    private final AsyncCache<Key, ResponseEntity<Object>> cache;
+
+    public ItemSearchCache(@Value("${shareit.search-cache.ttl:30s}") Duration ttl,
+                           @Value("${shareit.search-cache.maximum-size:10000}") long maximumSize,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "item-search");
+    }
+
+    public Mono<ResponseEntity<Object>> get(String text, int from, int size,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        Key key = new Key(text, from, size);
+        CompletableFuture<ResponseEntity<Object>> response = cache.get(key, (k, executor) -> loader.get().toFuture());
+        response.thenAccept(shareitServerResponse -> {
+            if (!isSuccessful(shareitServerResponse)) {
+                cache.asMap().remove(key, response);
+            }
+        });
+        // a copy, so that a client that goes away does not cancel the call other clients wait for
+        return Mono.fromFuture(response.copy());
+    }
+
+    /**
+     * Clears the cache once the write succeeded: a new or changed item may now match any cached search.
+     */
+    public Mono<ResponseEntity<Object>> invalidateOnSuccess(Mono<ResponseEntity<Object>> write) {
+        return write.doOnNext(shareitServerResponse -> {
+            if (isSuccessful(shareitServerResponse)) {
+                invalidateAll();
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private static boolean isSuccessful(ResponseEntity<Object> response) {
+        return response.getStatusCodeValue() / 100 == 2;
+    }
+
+    @lombok.Value
+    private static class Key {
+        String text;
+        int from;
+        int size;
+    }
+}
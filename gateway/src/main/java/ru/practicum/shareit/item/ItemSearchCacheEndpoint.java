@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code DELETE /actuator/searchcache} clears the gateway's search results. The server calls it after item
+ * writes, so that searches see them before the cached results expire. Actuator listens on
+ * {@code management.server.port}, which is not published to clients.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "searchcache")
+@RequiredArgsConstructor
+public class ItemSearchCacheEndpoint {
+
+    private final ItemSearchCache itemSearchCache;
+
+    @DeleteOperation
+    public void invalidate() {
+        itemSearchCache.invalidateAll();
+        log.info("Кэш поиска предметов сброшен по запросу сервера");
+    }
+}
@@ -2,11 +2,10 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.RequestDto;
 
@@ -17,22 +16,20 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .build()
         );
     }
 
     //findAllByRequester
-    public ResponseEntity<Object> findAllByRequester(long userId) {
+    public Mono<ResponseEntity<Object>> findAllByRequester(long userId) {
         return get("", userId);
     }
 
     //findAll
-    public ResponseEntity<Object> findAll(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> findAll(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,12 +39,12 @@ public class RequestClient extends BaseClient {
     }
 
     //findById
-    public ResponseEntity<Object> findById(long userId, long id) {
+    public Mono<ResponseEntity<Object>> findById(long userId, long id) {
         return get("/" + id, userId);
     }
 
     //save
-    public ResponseEntity<Object> save(long userId, RequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> save(long userId, RequestDto requestDto) {
         return post("", userId, requestDto);
     }
 }
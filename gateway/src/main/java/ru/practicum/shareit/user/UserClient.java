@@ -2,50 +2,60 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.item.ItemSearchCache;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
+    private final ItemSearchCache itemSearchCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ItemSearchCache itemSearchCache) {
         super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .baseUrl(serverUrl + API_PREFIX)
                 .build()
         );
+        this.itemSearchCache = itemSearchCache;
     }
 
     //save
-    public ResponseEntity<Object> save(UserRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> save(UserRequestDto requestDto) {
         return post("", requestDto);
     }
 
+    //saveAll
+    public Mono<ResponseEntity<Object>> saveAll(List<UserRequestDto> requestDtos) {
+        return post("/batch", requestDtos);
+    }
+
     //update
-    public ResponseEntity<Object> update(long id, UserRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> update(long id, UserRequestDto requestDto) {
         return patch("/" + id, requestDto);
     }
 
     //getById
-    public ResponseEntity<Object> getById(long id) {
+    public Mono<ResponseEntity<Object>> getById(long id) {
         return get("/" + id);
     }
 
     //getAll
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    //delete
-    public ResponseEntity<Object> delete(long id) {
-        return delete("/" + id);
+    //delete, the user's items go with them
+    public Mono<ResponseEntity<Object>> delete(long id) {
+        return itemSearchCache.invalidateOnSuccess(delete("/" + id));
     }
 }
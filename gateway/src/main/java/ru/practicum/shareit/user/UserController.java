@@ -6,10 +6,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.util.Marker;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
 @Controller
+@Validated
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
@@ -17,32 +24,41 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> save(@RequestBody @Validated({Marker.OnCreate.class}) UserRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> save(@RequestBody @Validated({Marker.OnCreate.class}) UserRequestDto requestDto) {
         log.info("Сохранение пользователя - {}", requestDto);
         return userClient.save(requestDto);
     }
 
+    @PostMapping(path = "/batch")
+    @Validated({Marker.OnBatchCreate.class})
+    public Mono<ResponseEntity<Object>> saveAll(
+            @RequestBody @NotEmpty(groups = Marker.OnCreate.class) @Size(max = 1000, groups = Marker.OnCreate.class)
+            List<@Valid UserRequestDto> requestDtos) {
+        log.info("Сохранение {} пользователей", requestDtos.size());
+        return userClient.saveAll(requestDtos);
+    }
+
     @PatchMapping(path = "/{id}")
-    public ResponseEntity<Object> update(@PathVariable(value = "id") Long id,
-                                         @RequestBody @Validated({Marker.OnUpdate.class}) UserRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable(value = "id") Long id,
+                                               @RequestBody @Validated({Marker.OnUpdate.class}) UserRequestDto requestDto) {
         log.info("Обновление пользователя с id - {}", id);
         return userClient.update(id, requestDto);
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Object> getById(@PathVariable(value = "id") Long id) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable(value = "id") Long id) {
         log.info("Запрос сведения о пользователе с id - {}", id);
         return userClient.getById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getById() {
+    public Mono<ResponseEntity<Object>> getById() {
         log.info("Запрос сведения обо всех пользователях");
         return userClient.getAll();
     }
 
     @DeleteMapping(path = "/{id}")
-    public ResponseEntity<Object> deleteById(@PathVariable(value = "id") Long id) {
+    public Mono<ResponseEntity<Object>> deleteById(@PathVariable(value = "id") Long id) {
         log.info("Удаление пользователя с id - {}", id);
         return userClient.delete(id);
     }
@@ -10,6 +10,7 @@ import javax.validation.constraints.*;
 @Builder
 public class UserRequestDto {
 
+    @Null(groups = Marker.OnBatchCreate.class)
     private Long id;
     @NotBlank(groups = Marker.OnCreate.class)
     @Size(max = 255, groups = {Marker.OnCreate.class, Marker.OnUpdate.class})
@@ -7,4 +7,7 @@ public interface Marker {
 
     interface OnUpdate {
     }
+
+    interface OnBatchCreate extends OnCreate {
+    }
 }
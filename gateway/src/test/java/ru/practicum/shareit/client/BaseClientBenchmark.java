@@ -0,0 +1,234 @@
+package ru.practicum.shareit.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the gateway's work per proxied response: the former Jackson round trip (read into a tree of maps,
+ * write it again) against forwarding the server's bytes, and measures how many requests to a slow server stay
+ * in flight without a thread per request, against the former blocking RestTemplate on a pool of request threads
+ * as large as Tomcat's default. The server is a stub returning a list of bookings.
+ * Run with {@code mvn -Pbenchmark test -pl gateway}.
+ */
+@Slf4j
+@Tag("benchmark")
+class BaseClientBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int RUNS = 5_000;
+    private static final int SLOW_SERVER_DELAY_MILLIS = 200;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ConnectionProvider connectionProvider;
+
+    @BeforeAll
+    static void configure() {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "10000");
+        ((Logger) LoggerFactory.getLogger("reactor.netty")).setLevel(Level.INFO);
+        ((Logger) LoggerFactory.getLogger("io.netty")).setLevel(Level.INFO);
+        ((Logger) LoggerFactory.getLogger("org.springframework")).setLevel(Level.INFO);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1_000})
+    void compareJsonRoundTripAndPassThrough(int bookingCount) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(makeBookings(bookingCount));
+        WebClient webClient = startServer(payload, 0, 1);
+        BaseClient client = new BaseClient(webClient) {
+        };
+
+        Runnable roundTrip = () -> {
+            ResponseEntity<Object> response = webClient.get().uri("/bookings")
+                    .retrieve()
+                    .toEntity(Object.class)
+                    .block();
+            try {
+                objectMapper.writeValueAsBytes(response.getBody());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        Runnable passThrough = () -> client.get("/bookings").block();
+
+        log.info("Ответ из {} бронирований ({} байт): JSON - {}, passthrough - {}", bookingCount, payload.length,
+                measure(roundTrip), measure(passThrough));
+        assertThat((byte[]) client.get("/bookings").block().getBody()).isEqualTo(payload);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000})
+    void slowServerRequestsInFlight(int inFlight) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(makeBookings(10));
+        BaseClient client = new BaseClient(startServer(payload, SLOW_SERVER_DELAY_MILLIS, inFlight)) {
+        };
+        int requests = inFlight * 5;
+        sendConcurrently(client, requests, inFlight);
+
+        long start = System.nanoTime();
+        long succeeded = sendConcurrently(client, requests, inFlight);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long clientThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("reactor-http"))
+                .count();
+        int blockingThreads = Math.min(inFlight, TOMCAT_MAX_THREADS);
+        String blocking = measureBlocking("http://localhost:" + server.getAddress().getPort() + "/bookings",
+                requests, blockingThreads);
+        log.info("{} запросов к серверу с задержкой {} мс, одновременно {}: WebClient - {} запр/с, " +
+                        "потоков клиента - {}; RestTemplate - {}, потоков - {}",
+                requests, SLOW_SERVER_DELAY_MILLIS, inFlight, String.format("%.0f", requests / seconds),
+                clientThreads, blocking, blockingThreads);
+        assertThat(succeeded).isEqualTo(requests);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        connectionProvider.dispose();
+    }
+
+    private String measure(Runnable request) {
+        for (int i = 0; i < WARMUP; i++) {
+            request.run();
+        }
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            request.run();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long allocatedPerRequest = (allocatedBytes() - allocated) / RUNS;
+        return String.format("%.0f запр/с, %d КБ/запр", RUNS / seconds, allocatedPerRequest / 1024);
+    }
+
+    /**
+     * The gateway before WebClient: every request holds a container thread while RestTemplate waits for the server.
+     */
+    private static String measureBlocking(String url, int requests, int threads) throws IOException {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(threads);
+        connectionManager.setDefaultMaxPerRoute(threads);
+        ExecutorService requestThreads = Executors.newFixedThreadPool(threads);
+        try (CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).build()) {
+            RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            sendBlocking(restTemplate, url, requests, requestThreads);
+
+            long start = System.nanoTime();
+            long succeeded = sendBlocking(restTemplate, url, requests, requestThreads);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            assertThat(succeeded).isEqualTo(requests);
+            return String.format("%.0f запр/с", requests / seconds);
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private static long sendBlocking(RestTemplate restTemplate, String url, int requests,
+                                     ExecutorService requestThreads) {
+        List<CompletableFuture<Boolean>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(CompletableFuture.supplyAsync(() -> restTemplate.getForEntity(url, byte[].class)
+                    .getStatusCode().is2xxSuccessful(), requestThreads));
+        }
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+    private static long sendConcurrently(BaseClient client, int requests, int inFlight) {
+        return Flux.range(0, requests)
+                .flatMap(i -> client.get("/bookings"), inFlight)
+                .filter(response -> response.getStatusCode().is2xxSuccessful())
+                .count()
+                .block();
+    }
+
+    /**
+     * The response is read on Netty's event loop threads, so allocations are summed over all threads.
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private WebClient startServer(byte[] payload, long delayMillis, int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), threads);
+        serverExecutor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(serverExecutor);
+        server.createContext("/bookings", exchange -> {
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            exchange.getResponseBody().write(payload);
+            exchange.close();
+        });
+        server.start();
+        connectionProvider = ConnectionProvider.create("benchmark", threads);
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+    }
+
+    private static List<Map<String, Object>> makeBookings(int count) {
+        List<Map<String, Object>> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bookings.add(Map.of(
+                    "id", i,
+                    "start", "2023-08-11T10:30:15",
+                    "end", "2023-08-12T10:30:15",
+                    "item", Map.of("id", i % 50, "name", "Дрель ударная " + i % 50),
+                    "booker", Map.of("id", i % 20, "name", "user" + i % 20),
+                    "status", "APPROVED"));
+        }
+        return bookings;
+    }
+}
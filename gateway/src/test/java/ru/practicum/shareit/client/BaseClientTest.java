@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaseClientTest {
+
+    private HttpServer server;
+    private BaseClient client;
+    private final AtomicReference<Headers> requestHeaders = new AtomicReference<>();
+    private final AtomicReference<byte[]> requestBody = new AtomicReference<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+        client = new BaseClient(WebClient.create("http://localhost:" + server.getAddress().getPort())) {
+        };
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void get_whenServerResponds_thenPassBodyBytesThrough() {
+        byte[] payload = "{ \"id\" : 1,\n  \"name\":\"Дрель\", \"price\": 1.50 }".getBytes(StandardCharsets.UTF_8);
+        respond("/items/1", 200, payload, Map.of("Content-Type", "application/json;charset=UTF-8"));
+
+        ResponseEntity<Object> response = client.get("/items/1", 1L).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((byte[]) response.getBody()).isEqualTo(payload);
+        assertThat(response.getHeaders().getContentType())
+                .isEqualTo(MediaType.parseMediaType("application/json;charset=UTF-8"));
+        assertThat(requestHeaders.get().getFirst("X-Sharer-User-Id")).isEqualTo("1");
+    }
+
+    @Test
+    void get_whenServerReturnsError_thenPassStatusAndBodyThrough() {
+        byte[] payload = "{\"error\":\"Предмет с id - 5 не найден!\"}".getBytes(StandardCharsets.UTF_8);
+        respond("/items/5", 404, payload, Map.of("Content-Type", "application/json"));
+
+        ResponseEntity<Object> response = client.get("/items/5", 1L).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat((byte[]) response.getBody()).isEqualTo(payload);
+    }
+
+    @Test
+    void get_whenServerSendsConnectionHeaders_thenDropThemAndKeepTheRest() {
+        respond("/items", 200, "[]".getBytes(StandardCharsets.UTF_8), Map.of(
+                "Content-Type", "application/json",
+                "Keep-Alive", "timeout=60",
+                "Trailer", "Expires",
+                "X-Total-Count", "0"));
+
+        ResponseEntity<Object> response = client.get("/items", 1L).block();
+
+        assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("0");
+        assertThat(response.getHeaders()).doesNotContainKeys("Keep-Alive", "Trailer", "Content-Length",
+                "Transfer-Encoding", "Connection");
+    }
+
+    @Test
+    void post_whenServerReturnsNoContent_thenReturnEmptyBody() {
+        respond("/users", 204, null, Map.of());
+
+        ResponseEntity<Object> response = client.post("/users", Map.of("name", "user")).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.hasBody()).isFalse();
+        assertThat(requestHeaders.get().getFirst("Content-Type")).isEqualTo("application/json");
+        assertThat(requestHeaders.get().containsKey("X-Sharer-User-Id")).isFalse();
+        assertThat(new String(requestBody.get(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"user\"}");
+    }
+
+    private void respond(String path, int status, byte[] payload, Map<String, String> headers) {
+        server.createContext(path, exchange -> {
+            requestHeaders.set(exchange.getRequestHeaders());
+            requestBody.set(exchange.getRequestBody().readAllBytes());
+            headers.forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(status, payload == null ? -1 : payload.length);
+            if (payload != null) {
+                exchange.getResponseBody().write(payload);
+            }
+            exchange.close();
+        });
+    }
+}
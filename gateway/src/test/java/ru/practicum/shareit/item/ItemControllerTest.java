@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.util.HeaderConstant;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemController.class)
+class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    void getItemByOwner_whenPageIsValid_thenProxyToServer() throws Exception {
+        when(itemClient.getItemByOwner(1L, 0, 10)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        MvcResult result = mockMvc.perform(get("/items")
+                        .header(HeaderConstant.USER_ID_HEADER, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        verify(itemClient, times(1)).getItemByOwner(1L, 0, 10);
+    }
+
+    @Test
+    void getItemByOwner_whenFromIsNegative_thenStatusIsBadRequest() throws Exception {
+        mockMvc.perform(get("/items")
+                        .header(HeaderConstant.USER_ID_HEADER, 1L)
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getItemByOwner(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void search_whenSizeIsZero_thenStatusIsBadRequest() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void saveItems_whenItemsAreValid_thenProxyToServer() throws Exception {
+        List<ItemRequestDto> requestDtos = List.of(makeDto("first"), makeDto("second"));
+        when(itemClient.saveItems(1L, requestDtos)).thenReturn(Mono.just(ResponseEntity.status(201).build()));
+
+        MvcResult result = mockMvc.perform(post("/items/batch")
+                        .header(HeaderConstant.USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(requestDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isCreated());
+        verify(itemClient, times(1)).saveItems(1L, requestDtos);
+    }
+
+    @Test
+    void saveItems_whenListIsEmpty_thenStatusIsBadRequest() throws Exception {
+        mockMvc.perform(post("/items/batch")
+                        .header(HeaderConstant.USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(Collections.emptyList()))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).saveItems(anyLong(), anyList());
+    }
+
+    @Test
+    void saveItems_whenOneItemIsInvalid_thenStatusIsBadRequest() throws Exception {
+        List<ItemRequestDto> requestDtos = List.of(makeDto("first"), makeDto(" "));
+
+        mockMvc.perform(post("/items/batch")
+                        .header(HeaderConstant.USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(requestDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).saveItems(anyLong(), anyList());
+    }
+
+    private ItemRequestDto makeDto(String name) {
+        return ItemRequestDto.builder().name(name).description("some item").available(true).build();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchCacheTest {
+
+    private final ItemSearchCache itemSearchCache = new ItemSearchCache(Duration.ofMinutes(1), 100,
+            new SimpleMeterRegistry());
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void get_whenSameSearchRepeated_thenServeFromCache() {
+        ResponseEntity<Object> first = search("дрель", 0, 10, ResponseEntity.ok("[1]")).block();
+        ResponseEntity<Object> second = search("дрель", 0, 10, ResponseEntity.ok("[2]")).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void get_whenPageDiffers_thenCallServer() {
+        search("дрель", 0, 10, ResponseEntity.ok("[1]")).block();
+        search("дрель", 10, 10, ResponseEntity.ok("[2]")).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void get_whenIdenticalSearchesInFlight_thenCallServerOnce() {
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> first = itemSearchCache.get("дрель", 0, 10, () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = search("дрель", 0, 10, ResponseEntity.ok("[2]"))
+                .toFuture();
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+
+        upstream.tryEmitValue(ResponseEntity.ok("[1]"));
+
+        assertThat(first.join().getBody()).isEqualTo("[1]");
+        assertThat(second.join().getBody()).isEqualTo("[1]");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void get_whenServerFails_thenDoNotCacheResponse() {
+        search("дрель", 0, 10, ResponseEntity.status(503).build()).block();
+        ResponseEntity<Object> response = search("дрель", 0, 10, ResponseEntity.ok("[1]")).block();
+
+        assertThat(response.getBody()).isEqualTo("[1]");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void invalidateOnSuccess_whenWriteSucceeds_thenClearCache() {
+        search("дрель", 0, 10, ResponseEntity.ok("[1]")).block();
+
+        itemSearchCache.invalidateOnSuccess(Mono.just(ResponseEntity.status(201).build())).block();
+        ResponseEntity<Object> response = search("дрель", 0, 10, ResponseEntity.ok("[2]")).block();
+
+        assertThat(response.getBody()).isEqualTo("[2]");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void invalidateOnSuccess_whenWriteFails_thenKeepCache() {
+        search("дрель", 0, 10, ResponseEntity.ok("[1]")).block();
+
+        itemSearchCache.invalidateOnSuccess(Mono.just(ResponseEntity.status(400).build())).block();
+        ResponseEntity<Object> response = search("дрель", 0, 10, ResponseEntity.ok("[2]")).block();
+
+        assertThat(response.getBody()).isEqualTo("[1]");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void invalidate_whenServerRequestsIt_thenClearCache() {
+        search("дрель", 0, 10, ResponseEntity.ok("[1]")).block();
+
+        new ItemSearchCacheEndpoint(itemSearchCache).invalidate();
+        ResponseEntity<Object> response = search("дрель", 0, 10, ResponseEntity.ok("[2]")).block();
+
+        assertThat(response.getBody()).isEqualTo("[2]");
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private Mono<ResponseEntity<Object>> search(String text, int from, int size, ResponseEntity<Object> response) {
+        return itemSearchCache.get(text, from, size, () -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(response);
+        });
+    }
+}
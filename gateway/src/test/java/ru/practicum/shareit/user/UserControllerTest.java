@@ -0,0 +1,115 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserController.class)
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserClient userClient;
+
+    @Test
+    void saveAll_whenUsersAreValid_thenProxyToServer() throws Exception {
+        List<UserRequestDto> requestDtos = List.of(makeDto("user1", "user1@mail.ru"),
+                makeDto("user2", "user2@mail.ru"));
+        when(userClient.saveAll(requestDtos)).thenReturn(Mono.just(ResponseEntity.status(201).build()));
+
+        MvcResult result = mockMvc.perform(post("/users/batch")
+                        .content(objectMapper.writeValueAsString(requestDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isCreated());
+        verify(userClient, times(1)).saveAll(requestDtos);
+    }
+
+    @Test
+    void saveAll_whenListIsEmpty_thenStatusIsBadRequest() throws Exception {
+        mockMvc.perform(post("/users/batch")
+                        .content(objectMapper.writeValueAsString(Collections.emptyList()))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(userClient, never()).saveAll(anyList());
+    }
+
+    @Test
+    void saveAll_whenOneUserIsInvalid_thenStatusIsBadRequest() throws Exception {
+        List<UserRequestDto> requestDtos = List.of(makeDto("user1", "user1@mail.ru"),
+                makeDto("user2", "not an email"));
+
+        mockMvc.perform(post("/users/batch")
+                        .content(objectMapper.writeValueAsString(requestDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(userClient, never()).saveAll(anyList());
+    }
+
+    @Test
+    void saveAll_whenUserHasId_thenStatusIsBadRequest() throws Exception {
+        UserRequestDto withId = makeDto("user2", "user2@mail.ru");
+        withId.setId(1L);
+        List<UserRequestDto> requestDtos = List.of(makeDto("user1", "user1@mail.ru"), withId);
+
+        mockMvc.perform(post("/users/batch")
+                        .content(objectMapper.writeValueAsString(requestDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(userClient, never()).saveAll(anyList());
+    }
+
+    @Test
+    void update_whenOnlyNameIsSent_thenCreateConstraintsDoNotApply() throws Exception {
+        UserRequestDto requestDto = makeDto("updated", null);
+        when(userClient.update(anyLong(), any())).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        MvcResult result = mockMvc.perform(patch("/users/1")
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        verify(userClient, times(1)).update(1L, requestDto);
+    }
+
+    private UserRequestDto makeDto(String name, String email) {
+        return UserRequestDto.builder().name(name).email(email).build();
+    }
+}
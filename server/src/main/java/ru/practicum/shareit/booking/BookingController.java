@@ -1,15 +1,26 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.util.HeaderConstant;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +29,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<BookingDto> save(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
@@ -32,6 +44,14 @@ public class BookingController {
         return new ResponseEntity<>(bookingService.update(id, userId, approved), HttpStatus.OK);
     }
 
+    @PatchMapping(path = "/batch")
+    public ResponseEntity<List<BookingBatchResult>> updateStatuses(
+            @RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+            @RequestParam(value = "approved") boolean approved,
+            @RequestBody List<Long> ids) {
+        return new ResponseEntity<>(bookingService.updateAll(ids, userId, approved), HttpStatus.OK);
+    }
+
     @GetMapping(path = "/{id}")
     public ResponseEntity<BookingDto> findById(@PathVariable(value = "id") Long id,
                                                @RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId) {
@@ -43,8 +63,12 @@ public class BookingController {
             @RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") BookingState state,
             @RequestParam(required = false, defaultValue = "0") int from,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        return new ResponseEntity<>(bookingService.findByBooker(userId, state, from, size), HttpStatus.OK);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
+        List<BookingDto> bookings = after == null
+                ? bookingService.findByBooker(userId, state, from, size)
+                : bookingService.findByBookerAfter(userId, state, BookingCursor.decode(after), size);
+        return new ResponseEntity<>(bookings, nextCursorHeaders(bookings, size), HttpStatus.OK);
     }
 
     @GetMapping(path = "/owner")
@@ -54,7 +78,47 @@ public class BookingController {
                                                                 required = false,
                                                                 defaultValue = "ALL") BookingState state,
                                                         @RequestParam(required = false, defaultValue = "0") int from,
-                                                        @RequestParam(required = false, defaultValue = "10") int size) {
-        return new ResponseEntity<>(bookingService.findByOwner(userId, state, from, size), HttpStatus.OK);
+                                                        @RequestParam(required = false, defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String after) {
+        List<BookingDto> bookings = after == null
+                ? bookingService.findByOwner(userId, state, from, size)
+                : bookingService.findByOwnerAfter(userId, state, BookingCursor.decode(after), size);
+        return new ResponseEntity<>(bookings, nextCursorHeaders(bookings, size), HttpStatus.OK);
+    }
+
+    /**
+     * Writes all bookings of the owner as NDJSON while they are read. The content type is set with the first line,
+     * so that a missing owner is still reported by {@link ru.practicum.shareit.exception.ErrorHandler} as JSON.
+     */
+    @GetMapping(path = "/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(
+            @RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+            HttpServletResponse response) {
+        ObjectWriter writer = objectMapper.writerFor(BookingDto.class);
+        StreamingResponseBody body = out -> bookingService.exportByOwner(userId, bookingDto -> {
+            if (response.getContentType() == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            }
+            writeLine(writer, bookingDto, out);
+        });
+        return ResponseEntity.ok(body);
+    }
+
+    private void writeLine(ObjectWriter writer, BookingDto bookingDto, OutputStream out) {
+        try {
+            out.write(writer.writeValueAsBytes(bookingDto));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpHeaders nextCursorHeaders(List<BookingDto> bookings, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            headers.set(HeaderConstant.NEXT_CURSOR_HEADER,
+                    BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return headers;
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Outcome of one booking of a batch status change: its new status or the reason it was not changed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class BookingBatchResult {
+
+    private Long id;
+    private BookingStatus status;
+    private String error;
+}
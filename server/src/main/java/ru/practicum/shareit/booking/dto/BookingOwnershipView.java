@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public interface BookingOwnershipView {
+
+    Long getId();
+
+    BookingStatus getStatus();
+
+    Long getItemId();
+
+    Long getOwnerId();
+}
@@ -3,11 +3,14 @@ package ru.practicum.shareit.booking.mapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
@@ -21,6 +24,7 @@ public class BookingMapper {
         return Booking.builder()
                 .item(item)
                 .booker(user)
+                .owner(item.getOwner())
                 .end(dto.getEnd())
                 .start(dto.getStart())
                 .status(BookingStatus.WAITING)
@@ -38,6 +42,33 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDtoShort viewToShort(ItemBookingView view) {
+        return BookingDtoShort.builder()
+                .id(view.getId())
+                .bookerId(view.getBookerId())
+                .build();
+    }
+
+    public static BookingDtoShort summaryToNext(ItemBookingSummary summary) {
+        if (summary.getNextBookingId() == null) {
+            return null;
+        }
+        return BookingDtoShort.builder()
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .build();
+    }
+
+    public static BookingDtoShort summaryToLast(ItemBookingSummary summary) {
+        if (summary.getLastBookingId() == null) {
+            return null;
+        }
+        return BookingDtoShort.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .build();
+    }
+
     public static List<BookingDto> listToDtoList(List<Booking> bookings) {
         return bookings.stream().map(BookingMapper::bookingToDto).collect(Collectors.toList());
     }
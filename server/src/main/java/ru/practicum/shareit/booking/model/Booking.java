@@ -19,7 +19,8 @@ import java.util.Objects;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -38,6 +39,11 @@ public class Booking {
     @JoinColumn(name = "user_id")
     private User booker;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JoinColumn(name = "owner_id")
+    private User owner;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private BookingStatus status;
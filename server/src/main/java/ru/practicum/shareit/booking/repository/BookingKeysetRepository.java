@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingKeysetRepository {
+
+    /**
+     * Next page of a booker's or an owner's bookings in the (start desc, id desc) order, after the cursor.
+     * Only the predicates of the given state are added, so each query can use its composite index.
+     */
+    List<Booking> findBefore(Party party, Long userId, BookingState state, LocalDateTime now,
+                             BookingCursor after, int size);
+
+    @Getter
+    @RequiredArgsConstructor
+    enum Party {
+        BOOKER("booker"),
+        OWNER("owner");
+
+        private final String attribute;
+    }
+}
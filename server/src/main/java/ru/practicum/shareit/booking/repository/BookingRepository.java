@@ -1,51 +1,119 @@
 package ru.practicum.shareit.booking.repository;
+
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingOwnershipView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
 
+    @Query("select b from Booking as b where b.booker.id = ?1")
     List<Booking> findAllByBookerId(PageRequest pageRequest, Long userId);
 
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
     List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(PageRequest pageRequest,
                                                                  Long userId,
                                                                  LocalDateTime now,
                                                                  LocalDateTime now2);
 
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.end < ?2")
     List<Booking> findAllByBookerIdAndEndIsBefore(PageRequest pageRequest, Long userId, LocalDateTime now);
 
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.start > ?2")
     List<Booking> findAllByBookerIdAndStartIsAfter(PageRequest pageRequest, Long userId, LocalDateTime now);
 
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.status = ?2")
     List<Booking> findAllByBookerIdAndStatus(PageRequest pageRequest, Long userId, BookingStatus bookingStatus);
 
-    List<Booking> findAllByItemOwnerId(PageRequest pageRequest, Long userId);
-
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(PageRequest pageRequest,
-                                                                         Long userId,
-                                                                         LocalDateTime now,
-                                                                         LocalDateTime now2);
-
-    List<Booking> findAllByItemOwnerIdAndEndIsBefore(PageRequest pageRequest, Long userId, LocalDateTime now);
-
-    List<Booking> findAllByItemOwnerIdAndStartIsAfter(PageRequest pageRequest, Long userId, LocalDateTime now);
-
-    List<Booking> findAllByItemOwnerIdAndStatus(PageRequest pageRequest, Long userId, BookingStatus bookingStatus);
-
-
-    BookingDtoShort findTopByItemIdAndStatusAndStartIsAfterOrderByStart(Long itemId, BookingStatus status,
-                                                                        LocalDateTime now);
-
-    BookingDtoShort findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(Long itemId, BookingStatus status,
-                                                                           LocalDateTime now);
-
-    Optional<Booking> findTopByItemIdAndBookerIdAndStatusAndEndIsBefore(Long itemId,
-                                                                        Long userId,
-                                                                        BookingStatus status,
-                                                                        LocalDateTime now);
+    @Query("select b from Booking as b where b.owner.id = ?1")
+    List<Booking> findAllByOwnerId(PageRequest pageRequest, Long userId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select b from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.owner.id = :ownerId " +
+            "order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByOwnerId(Long ownerId);
+
+    @Query("select b from Booking as b where b.owner.id = ?1 and b.start < ?2 and b.end > ?3")
+    List<Booking> findAllByOwnerIdAndStartIsBeforeAndEndIsAfter(PageRequest pageRequest,
+                                                                Long userId,
+                                                                LocalDateTime now,
+                                                                LocalDateTime now2);
+
+    @Query("select b from Booking as b where b.owner.id = ?1 and b.end < ?2")
+    List<Booking> findAllByOwnerIdAndEndIsBefore(PageRequest pageRequest, Long userId, LocalDateTime now);
+
+    @Query("select b from Booking as b where b.owner.id = ?1 and b.start > ?2")
+    List<Booking> findAllByOwnerIdAndStartIsAfter(PageRequest pageRequest, Long userId, LocalDateTime now);
+
+    @Query("select b from Booking as b where b.owner.id = ?1 and b.status = ?2")
+    List<Booking> findAllByOwnerIdAndStatus(PageRequest pageRequest, Long userId, BookingStatus bookingStatus);
+
+    @Query(value = "select t.id as id, t.item_id as itemId, t.user_id as bookerId, t.start as start, " +
+            "t.kind as kind " +
+            "from ((select b.id, b.item_id, b.user_id, b.start, 'NEXT' as kind " +
+            "from bookings as b " +
+            "where b.item_id = :itemId and b.status = 'APPROVED' and b.start > :now " +
+            "order by b.start limit 1) " +
+            "union all " +
+            "(select b.id, b.item_id, b.user_id, b.start, 'LAST' as kind " +
+            "from bookings as b " +
+            "where b.item_id = :itemId and b.status = 'APPROVED' and b.start < :now " +
+            "order by b.finish desc limit 1)) as t", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedByItemId(Long itemId, LocalDateTime now);
+
+    @Query(value = "select t.id as id, t.item_id as itemId, t.user_id as bookerId, t.start as start, " +
+            "t.kind as kind " +
+            "from (select b.id, b.item_id, b.user_id, b.start, 'NEXT' as kind, " +
+            "row_number() over (partition by b.item_id order by b.start) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start > :now " +
+            "union all " +
+            "select b.id, b.item_id, b.user_id, b.start, 'LAST' as kind, " +
+            "row_number() over (partition by b.item_id order by b.finish desc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start < :now) as t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedByItemIdIn(Collection<Long> itemIds, LocalDateTime now);
+
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId,
+                                                                   Collection<BookingStatus> statuses,
+                                                                   LocalDateTime end,
+                                                                   LocalDateTime start);
+
+    @Query("select distinct u.name from Booking as b join b.booker as u " +
+            "where b.item.id = ?1 and u.id = ?2 and b.status = ?3 and b.end < ?4")
+    Optional<String> findPastBookerName(Long itemId, Long userId, BookingStatus status, LocalDateTime now);
+
+    @Query("select b.id as id, b.status as status, i.id as itemId, i.owner.id as ownerId " +
+            "from Booking as b join b.item as i where b.id in ?1")
+    List<BookingOwnershipView> findOwnershipByIdIn(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking as b where b.id in ?1 order by b.id")
+    List<Booking> findAllByIdInForUpdate(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Booking as b set b.status = ?2 where b.id in ?1 and b.status <> ?3")
+    int updateStatusByIdInAndStatusNot(Collection<Long> ids, BookingStatus status, BookingStatus excluded);
 }
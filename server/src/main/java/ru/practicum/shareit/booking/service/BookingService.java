@@ -1,10 +1,13 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -12,9 +15,17 @@ public interface BookingService {
 
     BookingDto update(Long id, Long userId, boolean approved);
 
+    List<BookingBatchResult> updateAll(List<Long> ids, Long userId, boolean approved);
+
     BookingDto findById(Long id, Long userId);
 
     List<BookingDto> findByBooker(Long userId, BookingState state, int from, int size);
 
+    List<BookingDto> findByBookerAfter(Long userId, BookingState state, BookingCursor after, int size);
+
     List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size);
+
+    List<BookingDto> findByOwnerAfter(Long userId, BookingState state, BookingCursor after, int size);
+
+    void exportByOwner(Long userId, Consumer<BookingDto> consumer);
 }
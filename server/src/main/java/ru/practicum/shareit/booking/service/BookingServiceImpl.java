@@ -1,36 +1,63 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOwnershipView;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingKeysetRepository.Party;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.InvalidBookingException;
 import ru.practicum.shareit.exception.ModelNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,7 +71,7 @@ public class BookingServiceImpl implements BookingService {
         }
         User booker = userOpt.get();
 
-        Optional<Item> itemOpt = itemRepository.findById(bookingRequestDto.getItemId());
+        Optional<Item> itemOpt = itemRepository.findByIdForUpdate(bookingRequestDto.getItemId());
         if (itemOpt.isEmpty()) {
             throw new ModelNotFoundException(
                     String.format("Предмет с id - %d не найден!",
@@ -60,6 +87,12 @@ public class BookingServiceImpl implements BookingService {
                     String.format("Предмет %s c id - %d недоступен для бронирования!",
                             item.getName(), item.getId()));
         }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                ACTIVE_STATUSES, bookingRequestDto.getEnd(), bookingRequestDto.getStart())) {
+            throw new InvalidBookingException(
+                    String.format("Предмет %s c id - %d уже забронирован на период с %s по %s!",
+                            item.getName(), item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd()));
+        }
 
         Booking booking = BookingMapper.requestDtoToBooking(bookingRequestDto, item, booker);
         return BookingMapper.bookingToDto(bookingRepository.save(booking));
@@ -78,15 +111,123 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() == BookingStatus.APPROVED) {
             throw new InvalidBookingException(String.format("Бронирование с id %d уже подтверждено!", id));
         }
+        if (approved && booking.getStatus() == BookingStatus.REJECTED) {
+            Item item = itemRepository.findByIdForUpdate(booking.getItem().getId()).orElseThrow();
+            if (bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                    ACTIVE_STATUSES, booking.getEnd(), booking.getStart())) {
+                throw new InvalidBookingException(
+                        String.format("Предмет %s c id - %d уже забронирован на период с %s по %s!",
+                                item.getName(), item.getId(), booking.getStart(), booking.getEnd()));
+            }
+        }
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
         Booking updatedBooking = bookingRepository.save(booking);
+        if (approved) {
+            itemBookingSummaryService.refresh(booking.getItem().getId());
+            eventPublisher.publishEvent(
+                    new ItemChangedEvent(booking.getItem().getId(), ItemChangedEvent.Kind.BOOKING));
+        }
         return BookingMapper.bookingToDto(updatedBooking);
     }
 
+    /**
+     * Applies {@link #update}'s rules to every booking with one query for ownership and one UPDATE. Before the
+     * UPDATE the items being approved and then the bookings are locked and the bookings re-read, so a booking
+     * approved meanwhile is reported like any other instead of failing the batch. A rejected booking is approved
+     * only if it overlaps neither an active booking nor a rejected one approved earlier in the same batch.
+     * Results follow the order of the first occurrence of each id.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResult> updateAll(List<Long> ids, Long userId, boolean approved) {
+        Map<Long, BookingOwnershipView> views = bookingRepository.findOwnershipByIdIn(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(BookingOwnershipView::getId, view -> view));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+        Map<Long, BookingBatchResult> results = new LinkedHashMap<>();
+        List<Long> candidateIds = new ArrayList<>();
+        for (Long id : ids) {
+            if (results.containsKey(id)) {
+                continue;
+            }
+            BookingOwnershipView view = views.get(id);
+            String error = null;
+            if (view == null) {
+                error = String.format("Бронирование с id - %d не найдено!", id);
+            } else if (!view.getOwnerId().equals(userId)) {
+                error = "Статус бронирования может менять только владелец вещи!";
+            } else if (view.getStatus() == BookingStatus.APPROVED) {
+                error = String.format("Бронирование с id %d уже подтверждено!", id);
+            }
+            if (error != null) {
+                results.put(id, BookingBatchResult.builder().id(id).error(error).build());
+            } else {
+                results.put(id, BookingBatchResult.builder().id(id).status(status).build());
+                candidateIds.add(id);
+            }
+        }
+        if (candidateIds.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+
+        Map<Long, Item> items = !approved ? Collections.emptyMap() : itemRepository.findAllByIdInForUpdate(
+                        candidateIds.stream().map(id -> views.get(id).getItemId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInForUpdate(candidateIds).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> booking));
+        Map<Long, List<Booking>> reapproved = new HashMap<>();
+        List<Long> changedIds = new ArrayList<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (Long id : candidateIds) {
+            Booking booking = bookings.get(id);
+            Long itemId = views.get(id).getItemId();
+            String error = null;
+            if (booking == null) {
+                error = String.format("Бронирование с id - %d не найдено!", id);
+            } else if (booking.getStatus() == BookingStatus.APPROVED) {
+                error = String.format("Бронирование с id %d уже подтверждено!", id);
+            } else if (approved && booking.getStatus() == BookingStatus.REJECTED) {
+                List<Booking> approvedOnItem = reapproved.computeIfAbsent(itemId, key -> new ArrayList<>());
+                if (overlapsAny(booking, approvedOnItem) || bookingRepository
+                        .existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(itemId, ACTIVE_STATUSES,
+                                booking.getEnd(), booking.getStart())) {
+                    Item item = items.get(itemId);
+                    error = String.format("Предмет %s c id - %d уже забронирован на период с %s по %s!",
+                            item.getName(), itemId, booking.getStart(), booking.getEnd());
+                } else {
+                    approvedOnItem.add(booking);
+                }
+            }
+            if (error != null) {
+                results.put(id, BookingBatchResult.builder().id(id).error(error).build());
+            } else {
+                changedIds.add(id);
+                itemIds.add(itemId);
+            }
+        }
+
+        if (!changedIds.isEmpty()) {
+            bookingRepository.updateStatusByIdInAndStatusNot(changedIds, status, BookingStatus.APPROVED);
+            if (approved) {
+                for (Long itemId : itemIds) {
+                    itemBookingSummaryService.refresh(itemId);
+                    eventPublisher.publishEvent(new ItemChangedEvent(itemId, ItemChangedEvent.Kind.BOOKING));
+                }
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    private static boolean overlapsAny(Booking booking, List<Booking> others) {
+        return others.stream().anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                && other.getEnd().isAfter(booking.getStart()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingDto findById(Long id, Long userId) {
@@ -104,10 +245,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> findByBooker(Long userId, BookingState state, int from, int size) {
-        userRepository.findById(userId).orElseThrow(() -> new ModelNotFoundException(
-                String.format("Пользователь с id %d не найден!", userId)));
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d не найден!", userId));
+        }
 
-        PageRequest request = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
+        PageRequest request = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start", "id"));
 
         List<Booking> bookings;
         switch (state) {
@@ -153,45 +295,56 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.listToDtoList(bookings);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findByBookerAfter(Long userId, BookingState state, BookingCursor after, int size) {
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d не найден!", userId));
+        }
+        return BookingMapper.listToDtoList(bookingRepository.findBefore(Party.BOOKER, userId,
+                state, LocalDateTime.now(), after, size));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size) {
-        userRepository.findById(userId).orElseThrow(() -> new ModelNotFoundException(
-                String.format("Пользователь с id %d не найден!", userId)));
-        PageRequest request = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d не найден!", userId));
+        }
+        PageRequest request = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start", "id"));
 
         List<Booking> bookings;
         switch (state) {
             case ALL:
-                bookings = bookingRepository.findAllByItemOwnerId(request, userId);
+                bookings = bookingRepository.findAllByOwnerId(request, userId);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
+                bookings = bookingRepository.findAllByOwnerIdAndStartIsBeforeAndEndIsAfter(
                         request,
                         userId,
                         LocalDateTime.now(),
                         LocalDateTime.now());
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndIsBefore(
+                bookings = bookingRepository.findAllByOwnerIdAndEndIsBefore(
                         request,
                         userId,
                         LocalDateTime.now());
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsAfter(
+                bookings = bookingRepository.findAllByOwnerIdAndStartIsAfter(
                         request,
                         userId,
                         LocalDateTime.now());
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatus(
+                bookings = bookingRepository.findAllByOwnerIdAndStatus(
                         request,
                         userId,
                         BookingStatus.REJECTED);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatus(
+                bookings = bookingRepository.findAllByOwnerIdAndStatus(
                         request,
                         userId,
                         BookingStatus.WAITING);
@@ -202,4 +355,32 @@ public class BookingServiceImpl implements BookingService {
         }
         return BookingMapper.listToDtoList(bookings);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findByOwnerAfter(Long userId, BookingState state, BookingCursor after, int size) {
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d не найден!", userId));
+        }
+        return BookingMapper.listToDtoList(bookingRepository.findBefore(Party.OWNER, userId,
+                state, LocalDateTime.now(), after, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByOwner(Long userId, Consumer<BookingDto> consumer) {
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d не найден!", userId));
+        }
+        int exported = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(userId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(BookingMapper.bookingToDto(iterator.next()));
+                if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
 }
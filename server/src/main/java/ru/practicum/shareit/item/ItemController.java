@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentRequest;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.service.ItemService;
@@ -26,6 +27,12 @@ public class ItemController {
         return new ResponseEntity<>(service.save(userId, dto), HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<ItemBatchResult>> saveAll(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
+                                                         @RequestBody List<ItemDto> dtos) {
+        return new ResponseEntity<>(service.saveAll(userId, dtos), HttpStatus.OK);
+    }
+
     @PatchMapping(path = "/{id}")
     public ResponseEntity<ItemDto> update(@RequestHeader(HeaderConstant.USER_ID_HEADER) Long userId,
                                           @PathVariable Long id,
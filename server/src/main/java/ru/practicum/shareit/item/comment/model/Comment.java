@@ -15,8 +15,12 @@ import java.time.LocalDateTime;
 @Table(name = "comments")
 public class Comment {
 
+    public static final String ID_SEQUENCE = "comments_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @Column(name = "content")
     private String text;
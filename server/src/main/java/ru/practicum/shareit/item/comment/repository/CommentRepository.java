@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.comment.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemId(Long itemId);
+
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
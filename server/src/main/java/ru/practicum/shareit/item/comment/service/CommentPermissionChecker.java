@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.comment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.InvalidBookingException;
+import ru.practicum.shareit.exception.ModelNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Checks that a user may comment on an item, that is has a finished approved booking of it, and returns
+ * the author's name. The item, the user and the booking are checked with one query; a granted permission
+ * cannot expire, so it is kept for {@code shareit.comment.permission.ttl} and repeated comments skip the
+ * database. The separate lookups run only to tell the caller what is missing. Deleting a user drops the
+ * permissions granted to them and on their items, see {@link #evict}.
+ */
+@Component
+public class CommentPermissionChecker {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final Cache<Key, String> authors;
+
+    @Autowired
+    public CommentPermissionChecker(BookingRepository bookingRepository,
+                                    ItemRepository itemRepository,
+                                    UserExistenceChecker userExistenceChecker,
+                                    @Value("${shareit.comment.permission.ttl:10m}") Duration ttl,
+                                    @Value("${shareit.comment.permission.maximum-size:100000}") long maximumSize) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.userExistenceChecker = userExistenceChecker;
+        this.authors = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public String authorName(long itemId, long userId) {
+        Key key = new Key(itemId, userId);
+        String name = authors.getIfPresent(key);
+        if (name != null) {
+            return name;
+        }
+        Optional<String> booker = bookingRepository.findPastBookerName(itemId, userId, BookingStatus.APPROVED,
+                LocalDateTime.now());
+        if (booker.isPresent()) {
+            authors.put(key, booker.get());
+            return booker.get();
+        }
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new ModelNotFoundException(String.format("Предмет с id - %d не найден!", itemId));
+        }
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id - %d не найден!", userId));
+        }
+        throw new InvalidBookingException(
+                String.format("Пользователь с id - %d предмет с id - %d ранее не бронировал!", userId, itemId));
+    }
+
+    public void evict(long userId, Collection<Long> itemIds) {
+        authors.asMap().keySet().removeIf(key -> key.getUserId() == userId || itemIds.contains(key.getItemId()));
+    }
+
+    @lombok.Value
+    private static class Key {
+        long itemId;
+        long userId;
+    }
+}
@@ -0,0 +1,237 @@
+package ru.practicum.shareit.item.comment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts validated comments into a bounded queue and writes them from a single thread with JDBC batch inserts,
+ * so a burst of comments holds one connection instead of one per request. Until its batch commits, a comment
+ * is returned by {@link #pending}, which item pages merge with the stored comments. When the queue stays full
+ * for {@code shareit.comment.write-behind.offer-timeout} the comment is refused with
+ * {@link ServiceOverloadedException}. A batch that breaks a constraint is retried row by row and the rows
+ * that still fail (their item or author was deleted meanwhile) are dropped and counted in
+ * {@code shareit.comments.dropped}.
+ * <p>
+ * A comment is acknowledged before it is stored: on shutdown the queue is drained and new comments are
+ * refused, but comments still queued when the process crashes are lost. The pending comments live in this
+ * instance only, so with several servers a comment may be missing from another server's item page until
+ * its batch commits.
+ */
+@Slf4j
+@Component
+public class CommentWriteBehind {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final String INSERT = "insert into comments (id, content, item_id, user_id, created) " +
+            "values (?, ?, ?, ?, ?)";
+
+    private final CommentIdAllocator idAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingComment> queue;
+    private final ConcurrentMap<Long, SortedMap<Long, CommentDto>> pending = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Counter dropped;
+    private final Thread flusher = new Thread(this::flushUntilStopped, "comment-write-behind");
+    private volatile boolean running = true;
+
+    @Autowired
+    public CommentWriteBehind(CommentIdAllocator idAllocator,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.comment.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${shareit.comment.write-behind.batch-size:500}") int batchSize,
+                              @Value("${shareit.comment.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.idAllocator = idAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.dropped = meterRegistry.counter("shareit.comments.dropped");
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Refuses new comments and lets the flusher write what is already queued before the data source closes.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        if (flusher.isAlive() || !queue.isEmpty()) {
+            log.error("Сервер остановлен, не сохранено {} отзывов", queue.size());
+        }
+    }
+
+    public CommentDto accept(long itemId, long userId, String authorName, String text) {
+        if (!running) {
+            throw new ServiceOverloadedException("Сервер останавливается, повторите запрос позже!");
+        }
+        CommentDto comment = CommentDto.builder()
+                .id(idAllocator.next())
+                .itemId(itemId)
+                .authorName(authorName)
+                .text(text)
+                .created(LocalDateTime.now())
+                .build();
+        pending.compute(itemId, (id, comments) -> {
+            SortedMap<Long, CommentDto> result = comments == null ? new ConcurrentSkipListMap<>() : comments;
+            result.put(comment.getId(), comment);
+            return result;
+        });
+        boolean accepted;
+        try {
+            accepted = queue.offer(new PendingComment(comment, userId),
+                    offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            pending.computeIfPresent(itemId, (id, comments) -> {
+                comments.remove(comment.getId());
+                return comments.isEmpty() ? null : comments;
+            });
+            throw new ServiceOverloadedException("Слишком много новых отзывов, повторите запрос позже!");
+        }
+        return comment;
+    }
+
+    public List<CommentDto> pending(Long itemId) {
+        SortedMap<Long, CommentDto> comments = pending.get(itemId);
+        return comments == null ? Collections.emptyList() : new ArrayList<>(comments.values());
+    }
+
+    public Map<Long, List<CommentDto>> pending(Collection<Long> itemIds) {
+        Map<Long, List<CommentDto>> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            SortedMap<Long, CommentDto> comments = pending.get(itemId);
+            if (comments != null) {
+                result.put(itemId, new ArrayList<>(comments.values()));
+            }
+        }
+        return result;
+    }
+
+    private void flushUntilStopped() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void write(List<PendingComment> batch) throws InterruptedException {
+        insert(batch, true);
+        removePending(batch);
+    }
+
+    /**
+     * Retries while the database is unreachable: the queue then fills up and new comments are refused.
+     */
+    private void insert(List<PendingComment> batch, boolean whole) throws InterruptedException {
+        while (true) {
+            try {
+                insert(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (whole) {
+                    log.warn("Не удалось сохранить пакет из {} отзывов, сохраняем по одному: {}",
+                            batch.size(), e.getMostSpecificCause().getMessage());
+                    for (PendingComment pendingComment : batch) {
+                        insert(List.of(pendingComment), false);
+                    }
+                } else {
+                    CommentDto comment = batch.get(0).getComment();
+                    log.error("Отзыв с id - {} к предмету с id - {} не сохранён: {}",
+                            comment.getId(), comment.getItemId(), e.getMostSpecificCause().getMessage());
+                    dropped.increment();
+                    eventPublisher.publishEvent(
+                            new ItemChangedEvent(comment.getItemId(), ItemChangedEvent.Kind.COMMENT));
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.error("Не удалось сохранить {} отзывов, повтор через {} мс: {}",
+                        batch.size(), RETRY_DELAY_MILLIS, e.getMessage());
+                Thread.sleep(RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private void insert(List<PendingComment> batch) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(),
+                (ps, pendingComment) -> {
+                    CommentDto comment = pendingComment.getComment();
+                    ps.setLong(1, comment.getId());
+                    ps.setString(2, comment.getText());
+                    ps.setLong(3, comment.getItemId());
+                    ps.setLong(4, pendingComment.getUserId());
+                    ps.setTimestamp(5, Timestamp.valueOf(comment.getCreated()));
+                }));
+    }
+
+    private void removePending(List<PendingComment> written) {
+        Map<Long, List<Long>> ids = written.stream().collect(Collectors.groupingBy(
+                c -> c.getComment().getItemId(),
+                Collectors.mapping(c -> c.getComment().getId(), Collectors.toList())));
+        ids.forEach((itemId, commentIds) -> pending.computeIfPresent(itemId, (id, comments) -> {
+            commentIds.forEach(comments::remove);
+            return comments.isEmpty() ? null : comments;
+        }));
+    }
+
+    @lombok.Value
+    static class PendingComment {
+        CommentDto comment;
+        long userId;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a batch, in the order of the request: the saved item or the reason it was not saved.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class ItemBatchResult {
+
+    private ItemDto item;
+    private String error;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemSearchView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Long getRequestId();
+}
@@ -17,7 +17,6 @@ public class ItemMapper {
 
     public static Item dtoToItem(ItemDto dto) {
         return Item.builder()
-                .id(dto.getId())
                 .name(dto.getName())
                 .description(dto.getDescription())
                 .available(dto.getAvailable())
@@ -2,16 +2,32 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.dto.ItemDtoForRequests;
+import ru.practicum.shareit.item.dto.ItemSearchView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerIdOrderById(PageRequest pageRequest, Long userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item as it where it.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item as it where it.id in ?1 order by it.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> ids);
+
+    @Query("select it.owner.id from Item as it where it.id = ?1")
+    Optional<Long> findOwnerIdById(Long id);
+
     @Query("select it " +
             "from Item as it " +
             "where it.available = true " +
@@ -19,5 +35,37 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "or lower(it.name) like lower(concat('%', ?1, '%')))")
     List<Item> search(PageRequest pageRequest, String query);
 
+    @Query(value = "select it.* " +
+            "from items as it " +
+            "where it.available = true " +
+            "and it.search_vector @@ plainto_tsquery('russian', ?1) " +
+            "order by ts_rank(it.search_vector, plainto_tsquery('russian', ?1)) desc, it.id",
+            nativeQuery = true)
+    List<Item> fullTextSearch(PageRequest pageRequest, String query);
+
+    @Query(value = "select it.* " +
+            "from items as it " +
+            "where it.available = true " +
+            "and (lower(it.description) like '%' || lower(?1) || '%' " +
+            "or lower(it.name) like '%' || lower(?1) || '%') " +
+            "order by it.id",
+            nativeQuery = true)
+    List<Item> trigramSearch(PageRequest pageRequest, String query);
+
+    @Query("select it.id as id, it.name as name, it.description as description, r.id as requestId " +
+            "from Item as it left join it.request as r " +
+            "where it.available = true and it.id > ?1 " +
+            "order by it.id")
+    List<ItemSearchView> findAvailableAfter(PageRequest pageRequest, Long lastId);
+
+    @Query("select it.id from Item as it where it.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
     List<ItemDtoForRequests> findByRequestId(long id);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDtoForRequests(" +
+            "it.id, it.name, it.description, it.available, it.request.id) " +
+            "from Item as it " +
+            "where it.request.id in ?1")
+    List<ItemDtoForRequests> findByRequestIdIn(Collection<Long> requestIds);
 }
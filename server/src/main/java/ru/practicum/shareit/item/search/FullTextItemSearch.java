@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FullTextItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String query, PageRequest pageRequest) {
+        return itemRepository.fullTextSearch(pageRequest, query);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asks every gateway to clear its cached search results after an item is created or changed. Enabled when
+ * {@code shareit.gateway.urls} lists the gateways' management URLs, comma-separated; a gateway missing from
+ * the list serves stale results until its TTL expires. Writes that commit while a request is still waiting to
+ * be sent share it, and a failed request is only logged: the gateway's TTL bounds how long a result stays stale.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.gateway.urls")
+public class GatewaySearchCacheNotifier {
+
+    private static final String INVALIDATE_PATH = "/actuator/searchcache";
+
+    private final RestTemplate restTemplate;
+    private final List<String> gatewayUrls;
+    private final Executor executor;
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    @Autowired
+    public GatewaySearchCacheNotifier(@Value("${shareit.gateway.urls}") List<String> gatewayUrls,
+                                      RestTemplateBuilder builder) {
+        this(builder
+                        .setConnectTimeout(Duration.ofSeconds(1))
+                        .setReadTimeout(Duration.ofSeconds(2))
+                        .build(),
+                gatewayUrls,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "gateway-search-cache-notifier");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    GatewaySearchCacheNotifier(RestTemplate restTemplate, List<String> gatewayUrls, Executor executor) {
+        this.restTemplate = restTemplate;
+        this.gatewayUrls = gatewayUrls;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getKind() == ItemChangedEvent.Kind.ITEM && pending.compareAndSet(false, true)) {
+            executor.execute(this::notifyGateway);
+        }
+    }
+
+    private void notifyGateway() {
+        pending.set(false);
+        for (String gatewayUrl : gatewayUrls) {
+            try {
+                restTemplate.delete(gatewayUrl + INVALIDATE_PATH);
+            } catch (RestClientException e) {
+                log.warn("Не удалось сбросить кэш поиска в шлюзе {}: {}", gatewayUrl, e.getMessage());
+            }
+        }
+    }
+}
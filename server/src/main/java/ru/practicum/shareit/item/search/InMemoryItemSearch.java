@@ -0,0 +1,309 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram inverted index over the names and descriptions of available items, kept in the server process.
+ * Each indexed item gets a dense ordinal, reused after the item leaves the index, and postings are bitmaps
+ * of ordinals, so their size follows the number of items rather than the largest id. A search is an
+ * intersection of the query trigrams' bitmaps followed by a substring check that keeps the semantics of the
+ * JPQL search. Hits in the name outweigh hits in the description, ties are broken by id. The index keeps
+ * every field of the search result, so found items are returned without a database query and carry no owner.
+ * <p>
+ * Every server instance keeps its own index and applies only the changes committed through that instance.
+ * Changes made through other instances reach it when the index is rebuilt from the database, every
+ * {@code shareit.search.index.refresh-delay} milliseconds, so with several replicas results may lag that long.
+ * Changes committed while a rebuild reads the database are journaled and replayed onto the new index before
+ * it replaces the old one.
+ */
+@Slf4j
+public class InMemoryItemSearch implements ItemSearch, SmartInitializingSingleton {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double DESCRIPTION_WEIGHT = 0.4;
+
+    private final ItemRepository itemRepository;
+    private final Timer buildTimer;
+
+    private Index index = new Index();
+    private List<Consumer<Index>> journal;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InMemoryItemSearch(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.buildTimer = Timer.builder("shareit.search.index.build")
+                .description("Время построения поискового индекса предметов")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.documents", this, search -> search.size(index -> index.ordinals))
+                .description("Количество доступных предметов в поисковом индексе")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, search -> search.size(index -> index.postings))
+                .description("Количество триграмм в поисковом индексе")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${shareit.search.index.refresh-delay:600000}",
+            fixedDelayString = "${shareit.search.index.refresh-delay:600000}")
+    public synchronized void rebuild() {
+        Index newIndex = new Index();
+        List<Consumer<Index>> changes = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            journal = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        buildTimer.record(() -> {
+            long lastId = 0;
+            List<ItemSearchView> page;
+            do {
+                page = itemRepository.findAvailableAfter(PageRequest.of(0, REBUILD_PAGE_SIZE), lastId);
+                for (ItemSearchView view : page) {
+                    newIndex.put(Document.of(view.getId(), view.getName(), view.getDescription(),
+                            view.getRequestId()));
+                    lastId = view.getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        });
+        lock.writeLock().lock();
+        try {
+            changes.forEach(change -> change.accept(newIndex));
+            journal = null;
+            index = newIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс предметов построен, документов - {}, триграмм - {}!",
+                newIndex.ordinals.size(), newIndex.postings.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Long id = item.getId();
+        Document document = Boolean.TRUE.equals(item.getAvailable())
+                ? Document.of(id, item.getName(), item.getDescription(),
+                item.getRequest() == null ? null : item.getRequest().getId())
+                : null;
+        afterCommit(() -> apply(List.of(id), document));
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            List<Long> ids = List.copyOf(itemIds);
+            afterCommit(() -> apply(ids, null));
+        }
+    }
+
+    @Override
+    public List<Item> search(String query, PageRequest pageRequest) {
+        String lowerQuery = query.toLowerCase();
+        lock.readLock().lock();
+        try {
+            List<Document> hits = new ArrayList<>();
+            BitSet candidates = candidates(lowerQuery);
+            if (candidates == null) {
+                index.documents.stream()
+                        .filter(d -> d != null && d.score(lowerQuery) > 0)
+                        .forEach(hits::add);
+            } else {
+                for (int ordinal = candidates.nextSetBit(0); ordinal >= 0;
+                     ordinal = candidates.nextSetBit(ordinal + 1)) {
+                    Document document = index.documents.get(ordinal);
+                    if (document.score(lowerQuery) > 0) {
+                        hits.add(document);
+                    }
+                }
+            }
+            return hits.stream()
+                    .sorted(Comparator.comparingDouble((Document d) -> d.score(lowerQuery)).reversed()
+                            .thenComparingLong(d -> d.id))
+                    .skip(pageRequest.getOffset())
+                    .limit(pageRequest.getPageSize())
+                    .map(Document::toItem)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet candidates(String query) {
+        Set<String> grams = gramsOf(query);
+        if (grams.isEmpty()) {
+            return null;
+        }
+        List<BitSet> bitmaps = new ArrayList<>();
+        for (String gram : grams) {
+            BitSet ordinals = index.postings.get(gram);
+            if (ordinals == null) {
+                return new BitSet();
+            }
+            bitmaps.add(ordinals);
+        }
+        bitmaps.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet result = (BitSet) bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void apply(List<Long> ids, Document document) {
+        lock.writeLock().lock();
+        try {
+            apply(index, ids, document);
+            if (journal != null) {
+                journal.add(newIndex -> apply(newIndex, ids, document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Index target, List<Long> ids, Document document) {
+        ids.forEach(target::remove);
+        if (document != null) {
+            target.put(document);
+        }
+    }
+
+    private int size(Function<Index, Map<?, ?>> map) {
+        lock.readLock().lock();
+        try {
+            return map.apply(index).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static class Index {
+        private final Map<String, BitSet> postings = new HashMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final List<Document> documents = new ArrayList<>();
+        private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+        void put(Document document) {
+            Integer ordinal = freeOrdinals.poll();
+            if (ordinal == null) {
+                ordinal = documents.size();
+                documents.add(document);
+            } else {
+                documents.set(ordinal, document);
+            }
+            ordinals.put(document.id, ordinal);
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, g -> new BitSet()).set(ordinal);
+            }
+        }
+
+        void remove(Long id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            Document previous = documents.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+            for (String gram : previous.grams()) {
+                BitSet bitmap = postings.get(gram);
+                if (bitmap != null) {
+                    bitmap.clear(ordinal);
+                    if (bitmap.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final String lowerName;
+        private final String lowerDescription;
+
+        static Document of(Long id, String name, String description, Long requestId) {
+            String safeName = name == null ? "" : name;
+            String safeDescription = description == null ? "" : description;
+            return new Document(id, name, description, requestId,
+                    safeName.toLowerCase(), safeDescription.toLowerCase());
+        }
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(lowerName);
+            grams.addAll(gramsOf(lowerDescription));
+            return grams;
+        }
+
+        double score(String query) {
+            double score = 0;
+            if (lowerName.contains(query)) {
+                score += NAME_WEIGHT;
+            }
+            if (lowerDescription.contains(query)) {
+                score += DESCRIPTION_WEIGHT;
+            }
+            return score;
+        }
+
+        Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(true)
+                    .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSearch {
+
+    List<Item> search(String query, PageRequest pageRequest);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Collection<Long> itemIds) {
+    }
+}
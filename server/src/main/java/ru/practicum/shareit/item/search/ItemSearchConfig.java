@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+@Slf4j
+@Configuration
+public class ItemSearchConfig {
+
+    @Bean
+    public ItemSearch itemSearch(@Value("${shareit.search.mode:jpql}") ItemSearchMode mode,
+                                 @Value("${spring.datasource.url}") String datasourceUrl,
+                                 ItemRepository itemRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry) {
+        boolean postgres = DatabaseDriver.fromJdbcUrl(datasourceUrl) == DatabaseDriver.POSTGRESQL;
+        ItemSearch itemSearch;
+        switch (mode) {
+            case FULLTEXT:
+                itemSearch = postgres
+                        ? new FullTextItemSearch(itemRepository)
+                        : new InMemoryItemSearch(itemRepository, meterRegistry);
+                break;
+            case TRIGRAM:
+                itemSearch = postgres && hasTrigramExtension(jdbcTemplate)
+                        ? new TrigramItemSearch(itemRepository, jdbcTemplate)
+                        : new JpqlItemSearch(itemRepository);
+                break;
+            case MEMORY:
+                itemSearch = new InMemoryItemSearch(itemRepository, meterRegistry);
+                break;
+            case JPQL:
+            default:
+                itemSearch = new JpqlItemSearch(itemRepository);
+        }
+        log.info("Поиск предметов - режим {}, реализация {}!", mode, itemSearch.getClass().getSimpleName());
+        return itemSearch;
+    }
+
+    private boolean hasTrigramExtension(JdbcTemplate jdbcTemplate) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "select count(*) from pg_extension where extname = 'pg_trgm'", Integer.class);
+            if (count != null && count > 0) {
+                return true;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось проверить расширение pg_trgm: {}", e.getMessage());
+        }
+        log.warn("Расширение pg_trgm недоступно, поиск выполняется через JPQL!");
+        return false;
+    }
+}
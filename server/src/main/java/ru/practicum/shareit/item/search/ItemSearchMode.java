@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.search;
+
+public enum ItemSearchMode {
+
+    JPQL,
+    FULLTEXT,
+    TRIGRAM,
+    MEMORY
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Подключает pg_trgm и строит его индексы после каждой миграции Flyway, а не в версионной миграции: расширение
+ * может появиться уже после развертывания, и индексы будут созданы при следующем запуске сервера. Индексы строятся
+ * через CONCURRENTLY, поэтому вызов идет вне транзакции и не блокирует запись в items. Индекс, оставшийся
+ * невалидным после прерванной сборки, удаляется и строится заново.
+ */
+@Slf4j
+@Component
+public class TrigramIndexCallback implements Callback {
+
+    private static final Map<String, String> INDEXES = Map.of(
+            "items_name_trgm_idx", "lower(name)",
+            "items_description_trgm_idx", "lower(description)");
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        if (event != Event.AFTER_MIGRATE) {
+            return false;
+        }
+        try {
+            return "PostgreSQL".equals(context.getConnection().getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return false;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            if (!createExtension(statement)) {
+                return;
+            }
+            for (Map.Entry<String, String> index : INDEXES.entrySet()) {
+                Boolean valid = isValid(connection, index.getKey());
+                if (Boolean.TRUE.equals(valid)) {
+                    continue;
+                }
+                if (valid != null) {
+                    log.warn("Индекс {} невалиден после прерванной сборки, строится заново!", index.getKey());
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.getKey());
+                }
+                log.info("Построение индекса {}...", index.getKey());
+                statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.getKey()
+                        + " ON items USING GIN (" + index.getValue() + " gin_trgm_ops)");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось построить индексы pg_trgm: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "createItemTrigramIndexes";
+    }
+
+    private boolean createExtension(Statement statement) {
+        try {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            return true;
+        } catch (SQLException e) {
+            log.warn("Расширение pg_trgm недоступно, индексы для поиска по подстроке не построены: {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private Boolean isValid(Connection connection, String indexName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select i.indisvalid from pg_class c join pg_index i on i.indexrelid = c.oid where c.relname = ?")) {
+            statement.setString(1, indexName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getBoolean(1) : null;
+            }
+        }
+    }
+}
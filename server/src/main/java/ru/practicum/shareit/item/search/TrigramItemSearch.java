@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TrigramItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * После пяти выполнений подготовленного запроса PostgreSQL может перейти на общий план, который не знает
+     * искомой строки и выбирает обход items_pkey по id вместо индексов pg_trgm: на 1 млн предметов редкая строка
+     * ищется секундами. Поэтому в транзакции поиска план всегда строится под конкретную строку.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> search(String query, PageRequest pageRequest) {
+        jdbcTemplate.execute("set local plan_cache_mode = force_custom_plan");
+        return itemRepository.trigramSearch(pageRequest, query);
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.CommentRequest;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serves {@link #getById} for hot items: concurrent reads of the same item page by (item, whether the reader
+ * is the owner) wait for one computation in {@link ItemServiceImpl}, and its result is reused for
+ * {@code shareit.item.details-cache.ttl}. Entries are evicted on {@link ItemChangedEvent}, both at once and
+ * after the transaction commits, so a read that overlaps the write cannot keep the old page.
+ * All other methods are passed through.
+ */
+@Service
+@Primary
+public class CoalescingItemService implements ItemService {
+
+    private final ItemServiceImpl itemService;
+    private final ItemRepository itemRepository;
+    private final ConcurrentMap<Key, CompletableFuture<ItemDtoResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Key, ItemDtoResponse> cache;
+    private final Cache<Long, Long> owners;
+
+    @Autowired
+    public CoalescingItemService(ItemServiceImpl itemService,
+                                 ItemRepository itemRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.item.details-cache.ttl:5s}") Duration ttl,
+                                 @Value("${shareit.item.details-cache.maximum-size:10000}") long maximumSize) {
+        this.itemService = itemService;
+        this.itemRepository = itemRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "item-details");
+        // an item never changes its owner, so owner ids are only bounded in number
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public ItemDtoResponse getById(long id, long userId) {
+        Long ownerId = owners.get(id, itemId -> itemRepository.findOwnerIdById(itemId).orElse(null));
+        if (ownerId == null) {
+            return itemService.getById(id, userId);
+        }
+        Key key = new Key(id, ownerId == userId);
+        ItemDtoResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<ItemDtoResponse> call = new CompletableFuture<>();
+        CompletableFuture<ItemDtoResponse> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            ItemDtoResponse response = itemService.getById(id, userId);
+            if (inFlight.remove(key, call)) {
+                cache.put(key, response);
+            }
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        evict(event.getItemId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(event.getItemId());
+                }
+            });
+        }
+    }
+
+    @Override
+    public ItemDto save(long userId, ItemDto dto) {
+        return itemService.save(userId, dto);
+    }
+
+    @Override
+    public List<ItemBatchResult> saveAll(long userId, List<ItemDto> dtos) {
+        return itemService.saveAll(userId, dtos);
+    }
+
+    @Override
+    public ItemDto update(long userId, long id, ItemDto dto) {
+        return itemService.update(userId, id, dto);
+    }
+
+    @Override
+    public List<ItemDtoResponse> getByUserId(long userId, int from, int size) {
+        return itemService.getByUserId(userId, from, size);
+    }
+
+    @Override
+    public List<ItemDto> search(String query, int from, int size) {
+        return itemService.search(query, from, size);
+    }
+
+    @Override
+    public CommentDto saveComment(Long itemId, Long userId, CommentRequest commentRequest) {
+        return itemService.saveComment(itemId, userId, commentRequest);
+    }
+
+    /**
+     * Removing the in-flight call as well keeps a computation that started before the change out of the cache.
+     */
+    private void evict(Long itemId) {
+        for (boolean owner : new boolean[]{true, false}) {
+            Key key = new Key(itemId, owner);
+            inFlight.remove(key);
+            cache.invalidate(key);
+        }
+    }
+
+    private static ItemDtoResponse await(CompletableFuture<ItemDtoResponse> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @lombok.Value
+    private static class Key {
+        long itemId;
+        boolean owner;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Value;
+
+/**
+ * Published when something shown on an item's page changes: the item itself, its comments or its bookings.
+ */
+@Value
+public class ItemChangedEvent {
+    Long itemId;
+    Kind kind;
+
+    public enum Kind {
+        ITEM,
+        COMMENT,
+        BOOKING
+    }
+}
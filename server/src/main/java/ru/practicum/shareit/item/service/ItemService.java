@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentRequest;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 
@@ -11,6 +12,8 @@ public interface ItemService {
 
     ItemDto save(long userId, ItemDto dto);
 
+    List<ItemBatchResult> saveAll(long userId, List<ItemDto> dtos);
+
     ItemDto update(long userId, long id, ItemDto dto);
 
     ItemDtoResponse getById(long id, long userId);
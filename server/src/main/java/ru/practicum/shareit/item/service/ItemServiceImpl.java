@@ -2,14 +2,16 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.exception.InvalidBookingException;
 import ru.practicum.shareit.exception.ModelNotFoundException;
 import ru.practicum.shareit.exception.UserHaveNotAccessException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
@@ -17,11 +19,17 @@ import ru.practicum.shareit.item.comment.dto.CommentRequest;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.comment.service.CommentPermissionChecker;
+import ru.practicum.shareit.item.comment.service.CommentWriteBehind;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -36,11 +44,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    static final int BATCH_CHUNK_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearch itemSearch;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CommentPermissionChecker commentPermissionChecker;
+    private final CommentWriteBehind commentWriteBehind;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -55,10 +71,83 @@ public class ItemServiceImpl implements ItemService {
             itemToSave.setRequest(itemRequest);
         }
         Item item = itemRepository.save(itemToSave);
+        itemSearch.index(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), ItemChangedEvent.Kind.ITEM));
         log.info("Предмет - {} с id - {} добавлен!", item.getName(), item.getId());
         return ItemMapper.itemToDto(item);
     }
 
+    /**
+     * Resolves the owner once and all referenced requests with one query, then inserts the items in chunks of
+     * {@link #BATCH_CHUNK_SIZE}, each in its own transaction so a failed chunk does not roll back the others.
+     * An item whose request is missing, or whose chunk failed, is reported with an error instead of the item.
+     * Items are indexed for search once their chunk has committed, so a stored item is always reported.
+     */
+    @Override
+    public List<ItemBatchResult> saveAll(long userId, List<ItemDto> dtos) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new ModelNotFoundException(
+                String.format("Пользователь с id - %d не найден!", userId)));
+        Set<Long> requestIds = dtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Collections.emptyMap()
+                : requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, r -> r));
+
+        ItemBatchResult[] results = new ItemBatchResult[dtos.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ItemDto dto = dtos.get(i);
+            if (dto.getRequestId() != null && !requests.containsKey(dto.getRequestId())) {
+                results[i] = ItemBatchResult.builder()
+                        .error(String.format("Запрос с id - %d не найден!", dto.getRequestId()))
+                        .build();
+                continue;
+            }
+            Item item = ItemMapper.dtoToItem(dto);
+            item.setOwner(user);
+            item.setRequest(dto.getRequestId() == null ? null : requests.get(dto.getRequestId()));
+            positions.add(i);
+            items.add(item);
+        }
+
+        int saved = 0;
+        for (int from = 0; from < items.size(); from += BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + BATCH_CHUNK_SIZE, items.size());
+            List<Item> chunk = items.subList(from, to);
+            List<Item> savedChunk;
+            try {
+                savedChunk = transactionTemplate.execute(status -> itemRepository.saveAll(chunk));
+            } catch (RuntimeException e) {
+                log.error("Не удалось сохранить {} предметов пользователя с id - {}: {}",
+                        chunk.size(), userId, e.getMessage());
+                for (int i = from; i < to; i++) {
+                    results[positions.get(i)] = ItemBatchResult.builder()
+                            .error("Не удалось сохранить предмет, повторите запрос позже!")
+                            .build();
+                }
+                continue;
+            }
+            for (int i = 0; i < savedChunk.size(); i++) {
+                Item item = savedChunk.get(i);
+                results[positions.get(from + i)] = ItemBatchResult.builder()
+                        .item(ItemMapper.itemToDto(item))
+                        .build();
+                try {
+                    itemSearch.index(item);
+                    eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), ItemChangedEvent.Kind.ITEM));
+                } catch (RuntimeException e) {
+                    log.error("Предмет с id - {} сохранён, но не добавлен в поиск: {}", item.getId(), e.getMessage());
+                }
+            }
+            saved += savedChunk.size();
+        }
+        log.info("Добавлено предметов - {} из {} пользователем с id - {}!", saved, dtos.size(), userId);
+        return Arrays.asList(results);
+    }
+
     @Override
     @Transactional
     public ItemDto update(long userId, long id, ItemDto dto) {
@@ -80,6 +169,8 @@ public class ItemServiceImpl implements ItemService {
             );
         }
         Item updatedItem = itemRepository.save(updateItemFields(item, dto));
+        itemSearch.index(updatedItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(updatedItem.getId(), ItemChangedEvent.Kind.ITEM));
         log.info("Предмет - {} с id - {} обновлен!", updatedItem.getName(), updatedItem.getId());
         return ItemMapper.itemToDto(updatedItem);
     }
@@ -99,17 +190,28 @@ public class ItemServiceImpl implements ItemService {
         BookingDtoShort nextBooking = null;
         BookingDtoShort lastBooking = null;
         if (item.getOwner().getId() == userId) {
-            nextBooking = bookingRepository.findTopByItemIdAndStatusAndStartIsAfterOrderByStart(id,
-                    BookingStatus.APPROVED, LocalDateTime.now());
-            lastBooking = bookingRepository.findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(id,
-                    BookingStatus.APPROVED, LocalDateTime.now());
+            LocalDateTime now = LocalDateTime.now();
+            Optional<ItemBookingSummary> summary = itemBookingSummaryService.findFresh(id, now);
+            if (summary.isPresent()) {
+                nextBooking = BookingMapper.summaryToNext(summary.get());
+                lastBooking = BookingMapper.summaryToLast(summary.get());
+            } else {
+                for (ItemBookingView view : bookingRepository.findLastAndNextApprovedByItemId(id, now)) {
+                    if ("NEXT".equals(view.getKind())) {
+                        nextBooking = BookingMapper.viewToShort(view);
+                    } else {
+                        lastBooking = BookingMapper.viewToShort(view);
+                    }
+                }
+            }
         }
 
-        List<Comment> comments = commentRepository.findByItemId(id);
+        List<CommentDto> pendingComments = commentWriteBehind.pending(id);
+        List<CommentDto> comments = withPending(commentRepository.findByItemId(id), pendingComments);
 
         log.info("Предмет - {} с id - {} запрошен!", item.getName(), item.getId());
 
-        return ItemMapper.itemToResponse(item, nextBooking, lastBooking, CommentMapper.listToDtoList(comments));
+        return ItemMapper.itemToResponse(item, nextBooking, lastBooking, comments);
     }
 
     @Override
@@ -121,8 +223,31 @@ public class ItemServiceImpl implements ItemService {
             log.info("Список предметов пользователя с id {} пуст!", userId);
             return Collections.emptyList();
         }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        Map<Long, BookingDtoShort> nextBookings = new HashMap<>();
+        Map<Long, BookingDtoShort> lastBookings = new HashMap<>();
+        for (ItemBookingView view : bookingRepository.findLastAndNextApprovedByItemIdIn(itemIds,
+                LocalDateTime.now())) {
+            if ("NEXT".equals(view.getKind())) {
+                nextBookings.put(view.getItemId(), BookingMapper.viewToShort(view));
+            } else {
+                lastBookings.put(view.getItemId(), BookingMapper.viewToShort(view));
+            }
+        }
+
+        Map<Long, List<CommentDto>> pendingComments = commentWriteBehind.pending(itemIds);
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+
         log.info("Получен список предметов пользователя с id {}!", userId);
-        return items.stream().map(i -> getById(i.getId(), userId)).collect(Collectors.toList());
+        return items.stream()
+                .map(i -> ItemMapper.itemToResponse(i,
+                        nextBookings.get(i.getId()),
+                        lastBookings.get(i.getId()),
+                        withPending(comments.getOrDefault(i.getId(), Collections.emptyList()),
+                                pendingComments.getOrDefault(i.getId(), Collections.emptyList()))))
+                .collect(Collectors.toList());
     }
 
 
@@ -134,7 +259,7 @@ public class ItemServiceImpl implements ItemService {
             return Collections.emptyList();
         }
         PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Item> items = itemRepository.search(pageRequest, query);
+        List<Item> items = itemSearch.search(query, pageRequest);
         if (items.isEmpty()) {
             log.info("По заданному порядку букв - {} предметов не найдено!", query);
             return Collections.emptyList();
@@ -144,26 +269,24 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    @Transactional
     public CommentDto saveComment(Long itemId, Long userId, CommentRequest commentRequest) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ModelNotFoundException(
-                String.format("Предмет с id - %d не найден!", itemId)));
-
-        User user = userRepository.findById(userId).orElseThrow(() -> new ModelNotFoundException(
-                String.format("Пользователь с id - %d не найден!", userId)));
-
-        bookingRepository.findTopByItemIdAndBookerIdAndStatusAndEndIsBefore(
-                        itemId, userId, BookingStatus.APPROVED, LocalDateTime.now())
-                .orElseThrow(() -> new InvalidBookingException(
-                        String.format("Пользователь с id - %d предмет с id - %d ранее не бронировал!",
-                                userId, itemId)));
-
-        Comment comment = CommentMapper.requestToComment(item, user, commentRequest.getText());
-
-        Comment savedComment = commentRepository.save(comment);
-
+        String authorName = commentPermissionChecker.authorName(itemId, userId);
+        CommentDto comment = commentWriteBehind.accept(itemId, userId, authorName, commentRequest.getText());
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId, ItemChangedEvent.Kind.COMMENT));
+        return comment;
+    }
 
-        return CommentMapper.commentToDto(savedComment);
+    /**
+     * Pending comments are read before the stored ones: a comment leaves the pending list only after its batch
+     * commits, so it is found in one of them. One that is found in both is skipped.
+     */
+    private static List<CommentDto> withPending(List<Comment> stored, List<CommentDto> pending) {
+        List<CommentDto> comments = CommentMapper.listToDtoList(stored);
+        if (!pending.isEmpty()) {
+            Set<Long> storedIds = stored.stream().map(Comment::getId).collect(Collectors.toSet());
+            pending.stream().filter(c -> !storedIds.contains(c.getId())).forEach(comments::add);
+        }
+        return comments;
     }
 
     private Item updateItemFields(Item item, ItemDto dto) {
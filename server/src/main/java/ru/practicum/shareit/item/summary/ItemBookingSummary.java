@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next approved booking of an item, kept up to date on approval and by {@link ItemBookingSummarySweeper}.
+ * The row is valid until {@code refreshAt}, the start of the next booking, after which that booking becomes
+ * the last one. A missing row or a passed {@code refreshAt} means the summary has to be computed again.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public boolean isFresh(LocalDateTime now) {
+        return refreshAt == null || refreshAt.isAfter(now);
+    }
+}
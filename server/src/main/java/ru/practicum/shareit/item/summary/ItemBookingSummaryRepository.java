@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select it.id from Item as it " +
+            "left join ItemBookingSummary as s on s.itemId = it.id " +
+            "where s.itemId is null or s.refreshAt <= :now " +
+            "order by it.id")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable pageable);
+}
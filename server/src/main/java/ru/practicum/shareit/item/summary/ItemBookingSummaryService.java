@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.summary;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ItemBookingSummaryService {
+
+    Optional<ItemBookingSummary> findFresh(Long itemId, LocalDateTime now);
+
+    void refresh(Long itemId);
+
+    int refreshStale(int limit);
+}
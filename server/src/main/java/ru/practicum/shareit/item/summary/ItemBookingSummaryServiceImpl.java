@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ItemBookingSummary> findFresh(Long itemId, LocalDateTime now) {
+        return summaryRepository.findById(itemId).filter(summary -> summary.isFresh(now));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Long itemId) {
+        refresh(itemId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public int refreshStale(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = summaryRepository.findStaleItemIds(now, PageRequest.of(0, limit));
+        itemIds.forEach(itemId -> refresh(itemId, now));
+        return itemIds.size();
+    }
+
+    private void refresh(Long itemId, LocalDateTime now) {
+        if (itemRepository.findByIdForUpdate(itemId).isEmpty()) {
+            return;
+        }
+        ItemBookingSummary summary = ItemBookingSummary.builder().itemId(itemId).build();
+        for (ItemBookingView view : bookingRepository.findLastAndNextApprovedByItemId(itemId, now)) {
+            if ("NEXT".equals(view.getKind())) {
+                summary.setNextBookingId(view.getId());
+                summary.setNextBookerId(view.getBookerId());
+                summary.setRefreshAt(view.getStart());
+            } else {
+                summary.setLastBookingId(view.getId());
+                summary.setLastBookerId(view.getBookerId());
+            }
+        }
+        summaryRepository.save(summary);
+        log.debug("Обновлены сведения о бронированиях предмета с id - {}!", itemId);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes summaries whose next booking has started and creates them for items that have none yet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-summary.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBookingSummarySweeper {
+
+    private static final int BATCH = 100;
+
+    private final ItemBookingSummaryService summaryService;
+
+    @Scheduled(fixedDelayString = "${shareit.item-summary.sweeper.delay:60000}")
+    public void sweep() {
+        int total = 0;
+        int refreshed;
+        do {
+            refreshed = summaryService.refreshStale(BATCH);
+            total += refreshed;
+        } while (refreshed == BATCH);
+        if (total > 0) {
+            log.info("Обновлены сведения о бронированиях {} предметов!", total);
+        }
+    }
+}
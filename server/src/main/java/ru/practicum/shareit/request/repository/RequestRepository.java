@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -12,4 +13,7 @@ public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequesterIdNot(PageRequest pageRequest, Long userId);
 
+    @Query("select r.id from ItemRequest as r where r.requester.id = ?1")
+    List<Long> findIdsByRequesterId(Long userId);
+
 }
@@ -7,15 +7,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import ru.practicum.shareit.exception.ModelNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDtoForRequests;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,17 +29,19 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> findAllByRequester(Long userId) {
-        userRepository.findById(userId).orElseThrow(
-                () -> new ModelNotFoundException(String.format("Пользователь с id %d отсутствует", userId)));
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d отсутствует", userId));
+        }
         List<ItemRequest> requests = requestRepository.findByRequesterId(userId);
         List<ItemRequestDto> result = requests.stream()
                 .map(ItemRequestMapper::requestToDto)
                 .collect(Collectors.toList());
-        result.forEach(a -> a.setItems(itemRepository.findByRequestId(a.getId())));
+        attachItems(result);
         return result;
     }
 
@@ -46,15 +52,16 @@ public class RequestServiceImpl implements RequestService {
 
         List<ItemRequest> requestList = requestRepository.findAllByRequesterIdNot(pageRequest, userId);
         List<ItemRequestDto> requests = ItemRequestMapper.listToDtosList(requestList);
-        requests.forEach(a -> a.setItems(itemRepository.findByRequestId(a.getId())));
+        attachItems(requests);
         return requests;
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto findById(Long id, Long userId) {
-        userRepository.findById(userId).orElseThrow(
-                () -> new ModelNotFoundException(String.format("Пользователь с id %d отсутствует", userId)));
+        if (!userExistenceChecker.exists(userId)) {
+            throw new ModelNotFoundException(String.format("Пользователь с id %d отсутствует", userId));
+        }
         ItemRequest itemRequest = requestRepository.findById(id).orElseThrow(
                 () -> new ModelNotFoundException(String.format("Запрос с id %d отсутствует", id)));
 
@@ -73,4 +80,14 @@ public class RequestServiceImpl implements RequestService {
 
         return ItemRequestMapper.requestToDto(requestRepository.save(itemRequest));
     }
+
+    private void attachItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDtoForRequests>> items = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDtoForRequests::getRequestId));
+        requests.forEach(a -> a.setItems(items.getOrDefault(a.getId(), Collections.emptyList())));
+    }
 }
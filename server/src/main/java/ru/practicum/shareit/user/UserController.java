@@ -21,6 +21,11 @@ public class UserController {
         return new ResponseEntity<>(service.save(dto), HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<UserDto>> saveAll(@RequestBody List<UserDto> dtos) {
+        return new ResponseEntity<>(service.saveAll(dtos), HttpStatus.CREATED);
+    }
+
     @PatchMapping(path = "/{id}")
     public ResponseEntity<UserDto> update(@PathVariable(value = "id") Long id,
                                           @RequestBody UserDto dto) {
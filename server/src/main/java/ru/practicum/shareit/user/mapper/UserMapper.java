@@ -14,7 +14,6 @@ public class UserMapper {
 
     public static User dtoToUser(UserDto dto) {
         return User.builder()
-                .id(dto.getId())
                 .name(dto.getName())
                 .email(dto.getEmail())
                 .build();
@@ -35,6 +34,10 @@ public class UserMapper {
                 .build();
     }
 
+    public static List<User> dtoListToUserList(List<UserDto> dtos) {
+        return dtos.stream().map(UserMapper::dtoToUser).collect(Collectors.toList());
+    }
+
     public static List<UserDto> listToDtoList(List<User> users) {
         return users.stream().map(UserMapper::userToDto).collect(Collectors.toList());
     }
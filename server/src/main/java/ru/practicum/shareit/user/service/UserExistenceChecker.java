@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Answers whether a user exists without loading the entity. Results of the primary key probe are kept
+ * in a bounded cache: existing users for {@code positive-ttl}, missing ones for the shorter {@code negative-ttl}.
+ * {@link UserServiceImpl} evicts an id when the user is created or deleted.
+ */
+@Component
+public class UserExistenceChecker {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    @Autowired
+    public UserExistenceChecker(UserRepository userRepository,
+                                @Value("${shareit.user.existence.positive-ttl:60s}") Duration positiveTtl,
+                                @Value("${shareit.user.existence.negative-ttl:5s}") Duration negativeTtl,
+                                @Value("${shareit.user.existence.maximum-size:100000}") long maximumSize) {
+        this(userRepository, positiveTtl, negativeTtl, maximumSize, Ticker.systemTicker());
+    }
+
+    UserExistenceChecker(UserRepository userRepository, Duration positiveTtl, Duration negativeTtl,
+                         long maximumSize, Ticker ticker) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Boolean exists, long currentTime) {
+                        return (exists ? positiveTtl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
+
+    public boolean exists(long userId) {
+        return cache.get(userId, userRepository::existsById);
+    }
+
+    public void evict(long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
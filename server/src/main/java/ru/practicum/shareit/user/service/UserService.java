@@ -8,6 +8,8 @@ public interface UserService {
 
     UserDto save(UserDto dto);
 
+    List<UserDto> saveAll(List<UserDto> dtos);
+
     UserDto update(Long id, UserDto dto);
 
     UserDto getById(long id);
@@ -2,15 +2,26 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.ModelNotFoundException;
-
+import ru.practicum.shareit.item.comment.service.CommentPermissionChecker;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,15 +31,36 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final ItemSearch itemSearch;
+    private final CommentPermissionChecker commentPermissionChecker;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public UserDto save(UserDto dto) {
         User savedUser = userRepository.save(UserMapper.dtoToUser(dto));
+        userExistenceChecker.evict(savedUser.getId());
         log.info("Создан пользователь по имени - {} с id - {}!", savedUser.getName(), savedUser.getId());
         return UserMapper.userToDto(savedUser);
     }
 
+    /**
+     * Ids come from the users sequence in blocks, so Hibernate sends the inserts in JDBC batches of
+     * {@code hibernate.jdbc.batch_size}. Either all users are created or, on a duplicate email, none.
+     */
+    @Override
+    @Transactional
+    public List<UserDto> saveAll(List<UserDto> dtos) {
+        List<User> savedUsers = userRepository.saveAll(UserMapper.dtoListToUserList(dtos));
+        savedUsers.forEach(user -> userExistenceChecker.evict(user.getId()));
+        log.info("Создано пользователей - {}!", savedUsers.size());
+        return UserMapper.listToDtoList(savedUsers);
+    }
+
     @Override
     @Transactional
     public UserDto update(Long id, UserDto dto) {
@@ -67,11 +99,41 @@ public class UserServiceImpl implements UserService {
         return UserMapper.listToDtoList(userRepository.findAll());
     }
 
+    /**
+     * The database removes the user's items and requests by cascade, bypassing the second-level cache,
+     * so their entries and the comment permissions on them are evicted once the delete has committed.
+     * An {@link ItemChangedEvent} per removed item clears the item details cache and the gateways' search caches.
+     */
     @Override
     @Transactional
     public void deleteById(long id) {
         log.info("Удален пользователь с id - {}!", id);
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
+        List<Long> requestIds = requestRepository.findIdsByRequesterId(id);
         userRepository.deleteById(id);
+        itemSearch.remove(itemIds);
+        itemIds.forEach(itemId ->
+                eventPublisher.publishEvent(new ItemChangedEvent(itemId, ItemChangedEvent.Kind.ITEM)));
+        userExistenceChecker.evict(id);
+        afterCommit(() -> {
+            Cache cache = entityManagerFactory.getCache();
+            itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+            requestIds.forEach(requestId -> cache.evict(ItemRequest.class, requestId));
+            commentPermissionChecker.evict(id, itemIds);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     private User updateUserFields(User user, UserDto dto) {
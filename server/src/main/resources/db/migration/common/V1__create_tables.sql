@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE IF NOT EXISTS users(
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(255),
@@ -41,4 +35,4 @@ CREATE TABLE IF NOT EXISTS comments(
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP
-);
\ No newline at end of file
+);
@@ -0,0 +1,5 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users(id) ON DELETE CASCADE;
+
+UPDATE bookings AS b SET owner_id = (SELECT i.user_id FROM items AS i WHERE i.id = b.item_id) WHERE b.owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary(
+    item_id BIGINT NOT NULL PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+    last_booking_id BIGINT REFERENCES bookings(id) ON DELETE CASCADE,
+    last_booker_id BIGINT,
+    next_booking_id BIGINT REFERENCES bookings(id) ON DELETE CASCADE,
+    next_booker_id BIGINT,
+    refresh_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_refresh_at_idx ON item_booking_summary (refresh_at);
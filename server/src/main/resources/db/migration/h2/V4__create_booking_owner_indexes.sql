@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start DESC, id DESC);
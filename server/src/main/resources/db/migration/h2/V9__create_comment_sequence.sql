@@ -0,0 +1,5 @@
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM comments);
@@ -0,0 +1,9 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_owner_idx ON items (user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_start_idx ON bookings (user_id, start DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_status_start_idx ON bookings (user_id, status, start DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_status_finish_idx ON bookings (item_id, status, finish);
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_search_vector_idx ON items USING GIN (search_vector);
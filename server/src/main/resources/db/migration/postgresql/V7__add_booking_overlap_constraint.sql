@@ -0,0 +1,33 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The constraint cannot be added while active bookings of one item overlap. Such pairs are listed and the
+-- migration stops without changing any booking: the owner decides which booking to reject, then the server
+-- is restarted and the migration runs again.
+DO $$
+DECLARE
+    pairs BIGINT;
+    listed TEXT;
+BEGIN
+    WITH conflicts AS (
+        SELECT b.id, o.id AS other_id, b.item_id
+        FROM bookings AS b
+                 JOIN bookings AS o ON o.item_id = b.item_id
+            AND o.id > b.id
+            AND o.start < b.finish
+            AND o.finish > b.start
+        WHERE b.status IN ('WAITING', 'APPROVED')
+          AND o.status IN ('WAITING', 'APPROVED')
+    )
+    SELECT (SELECT count(*) FROM conflicts),
+           (SELECT string_agg(format('%s and %s (item %s)', id, other_id, item_id), ', ')
+            FROM (SELECT * FROM conflicts ORDER BY id, other_id LIMIT 100) AS listed_conflicts)
+    INTO pairs, listed;
+    IF pairs > 0 THEN
+        RAISE EXCEPTION 'Cannot add bookings_item_no_overlap, % pairs of active bookings overlap: %', pairs, listed
+            USING HINT = 'Reject one booking of each pair, then restart the server to run the migration again.';
+    END IF;
+END $$;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_item_no_overlap
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start, finish) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,5 @@
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM comments), false);
@@ -7,20 +7,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ModelNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
@@ -79,6 +87,25 @@ class BookingControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    void updateStatuses_whenParamSet_thenStatusIsOkAndResultsReturned() throws Exception {
+        List<BookingBatchResult> results = List.of(
+                BookingBatchResult.builder().id(1L).status(BookingStatus.APPROVED).build(),
+                BookingBatchResult.builder().id(2L).error("Бронирование с id 2 уже подтверждено!").build());
+        when(bookingService.updateAll(List.of(1L, 2L), 1L, true)).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+        verify(bookingService, never()).update(any(), any(), anyBoolean());
+    }
+
     @Test
     void findById_thenStatusIsOk() throws Exception {
         mockMvc.perform(get("/bookings/{id}", 1)
@@ -129,4 +156,82 @@ class BookingControllerTest {
                 .findByOwner(1L, BookingState.ALL, 0, 10);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByBooker_whenPageIsFull_thenReturnNextCursorHeader() throws Exception {
+        BookingDto booking = BookingDto.builder()
+                .id(7L)
+                .start(LocalDateTime.of(2023, 5, 1, 12, 0))
+                .end(LocalDateTime.of(2023, 5, 2, 12, 0))
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(bookingService.findByBooker(1L, BookingState.ALL, 0, 1)).thenReturn(List.of(booking));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(booking).encode()));
+    }
+
+    @Test
+    void findByOwner_whenAfterSet_thenSeekFromDecodedCursor() throws Exception {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 5, 1, 12, 0), 7L);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        verify(bookingService, times(1))
+                .findByOwnerAfter(eq(1L), eq(BookingState.ALL), any(BookingCursor.class), eq(10));
+        verify(bookingService, never()).findByOwner(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void findByBooker_whenAfterIsMalformed_thenStatusIsBadRequest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportByOwner_whenOwnerHasBookings_thenWriteOneJsonLinePerBooking() throws Exception {
+        BookingDto first = BookingDto.builder().id(2L).status(BookingStatus.APPROVED).build();
+        BookingDto second = BookingDto.builder().id(1L).status(BookingStatus.WAITING).build();
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(bookingService).exportByOwner(eq(1L), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second) + "\n"));
+    }
+
+    @Test
+    void exportByOwner_whenOwnerNotFound_thenStatusIsNotFound() throws Exception {
+        doThrow(new ModelNotFoundException("Пользователь с id 1 не найден!"))
+                .when(bookingService).exportByOwner(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares request handling on platform threads (Tomcat's pool) and on virtual threads (the virtual-threads
+ * profile) under many concurrent requests to the booking lists. Each run starts its own server on a random port.
+ * Needs JDK 21 or later; run with {@code mvn -Pbenchmark test -pl server -Dtest=BookingLoadBenchmark}, add
+ * {@code -Djvm=<path to JDK 21 java>} when Maven itself runs on an older JDK and
+ * {@code -Dbenchmark.spring.profile=default} to run against a scratch PostgreSQL database.
+ */
+@Slf4j
+@Tag("benchmark")
+@EnabledIf("virtualThreadsSupported")
+class BookingLoadBenchmark {
+
+    private static final int ITEMS = 50;
+    private static final int BOOKINGS = 5_000;
+    private static final int REQUESTS_PER_CONNECTION = 4;
+
+    @ParameterizedTest(name = "{0}, одновременно {1}")
+    @CsvSource({"platform, 1000", "virtual, 1000", "platform, 5000", "virtual, 5000"})
+    void listBookingsConcurrently(String threads, int concurrency) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(ShareItServer.class);
+        if ("virtual".equals(threads)) {
+            application.profiles("virtual-threads");
+        }
+        try (ServletWebServerApplicationContext context =
+                     (ServletWebServerApplicationContext) application.run("--server.port=0",
+                             "--spring.jpa.properties.hibernate.show_sql=false")) {
+            long[] userIds = seed(context.getBean(JdbcTemplate.class));
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+            List<HttpRequest> requests = List.of(
+                    listRequest(baseUrl + "/bookings/owner?state=ALL&from=0&size=10", userIds[0]),
+                    listRequest(baseUrl + "/bookings?state=ALL&from=0&size=10", userIds[1]));
+
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            try {
+                run(client, requests, concurrency);
+                ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+                threadBean.resetPeakThreadCount();
+                int platformThreadsBefore = threadBean.getThreadCount();
+                long start = System.nanoTime();
+                long[] latencies = run(client, requests, concurrency);
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                Arrays.sort(latencies);
+                log.info("{} потоки, одновременно {} запросов: {} запр/с, p50 - {} мс, p99 - {} мс, " +
+                                "платформенных потоков было {}, в пике {}", threads, concurrency,
+                        String.format("%.0f", latencies.length / seconds),
+                        latencies[latencies.length / 2] / 1_000_000,
+                        latencies[latencies.length * 99 / 100] / 1_000_000,
+                        platformThreadsBefore, threadBean.getPeakThreadCount());
+            } finally {
+                clientExecutor.shutdownNow();
+            }
+        }
+    }
+
+    static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Keeps {@code concurrency} requests in flight until every connection has sent its share.
+     */
+    private static long[] run(HttpClient client, List<HttpRequest> requests, int concurrency) throws Exception {
+        int total = concurrency * REQUESTS_PER_CONNECTION;
+        long[] latencies = new long[total];
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<CompletableFuture<?>> futures = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (e != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).handle((result, e) -> null).join();
+        assertThat(failed.get()).isZero();
+        return latencies;
+    }
+
+    private static HttpRequest listRequest(String url, long userId) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(Duration.ofMinutes(1))
+                .GET()
+                .build();
+    }
+
+    /**
+     * Creates an owner with items and a booker with bookings of them and returns their ids.
+     */
+    private static long[] seed(JdbcTemplate jdbcTemplate) {
+        String suffix = String.valueOf(System.nanoTime());
+        long[] userIds = new long[2];
+        for (int i = 0; i < userIds.length; i++) {
+            jdbcTemplate.update("insert into users (name, email) values ('benchmark', ?)",
+                    "load" + i + "." + suffix + "@mail.ru");
+            userIds[i] = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        }
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            jdbcTemplate.update("insert into items (user_id, name, description, available) " +
+                    "values (?, 'benchmark', 'benchmark', true)", userIds[0]);
+            itemIds.add(jdbcTemplate.queryForObject("select max(id) from items", Long.class));
+        }
+        LocalDateTime origin = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Object[]> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = origin.plusHours(i);
+            bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                    itemIds.get(i % ITEMS), userIds[1], userIds[0]});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start, finish, item_id, user_id, owner_id, status) " +
+                "values (?, ?, ?, ?, ?, 'APPROVED')", bookings);
+        return userIds;
+    }
+}
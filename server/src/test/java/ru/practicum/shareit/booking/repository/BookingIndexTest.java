@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingKeysetRepository.Party;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.booking.repository.BookingIndexTest$StatementCapture")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingIndexTest {
+
+    private static final int USERS = 20;
+    private static final int ITEMS = 200;
+    private static final int BOOKINGS = 5_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 1, 0, 0);
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("start").descending()
+            .and(Sort.by("id").descending()));
+    private static final BookingCursor CURSOR = new BookingCursor(NOW, Long.MAX_VALUE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Long userId;
+    private Long itemId;
+
+    /**
+     * Ids come from sequences in blocks, so rows are linked by their generated names rather than by id offsets.
+     * H2 backs every foreign key with a single-column index of its own and prefers it over the composite ones.
+     * PostgreSQL creates no such indexes, so this context-private database drops the booker and owner keys
+     * and the plans below only see the indexes from the migrations. Bookings still go away with their items.
+     */
+    @BeforeAll
+    void seed() {
+        dropForeignKey("USER_ID");
+        dropForeignKey("OWNER_ID");
+        jdbcTemplate.update("insert into users (name, email) " +
+                "select 'index' || x, 'index' || x || '@mail.ru' from system_range(1, ?)", USERS);
+        userId = jdbcTemplate.queryForObject("select min(id) from users where name like 'index%'", Long.class);
+        jdbcTemplate.update("insert into items (user_id, name, description, available) " +
+                "select (select u.id from users as u where u.name = 'index' || (1 + mod(x, ?))), " +
+                "'index item' || x, 'description', true from system_range(1, ?)", USERS, ITEMS);
+        itemId = jdbcTemplate.queryForObject("select min(id) from items where name like 'index item%'",
+                Long.class);
+        jdbcTemplate.update("insert into bookings (start, finish, item_id, user_id, owner_id, status) " +
+                "select dateadd('HOUR', x, timestamp '2023-01-01 00:00:00'), " +
+                "dateadd('HOUR', x + 2, timestamp '2023-01-01 00:00:00'), i.id, " +
+                "(select u.id from users as u where u.name = 'index' || (1 + mod(x, ?))), i.user_id, " +
+                "case mod(x, 3) when 0 then 'WAITING' when 1 then 'APPROVED' else 'REJECTED' end " +
+                "from system_range(1, ?) join items as i on i.name = 'index item' || (1 + mod(x, ?))",
+                USERS, BOOKINGS, ITEMS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("delete from users where name like 'index%'");
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                query("findAllByBookerId", "BOOKINGS_BOOKER_START_IDX",
+                        (repository, user, item) -> repository.findAllByBookerId(PAGE, user)),
+                query("findAllByBookerIdAndStartIsBeforeAndEndIsAfter", "BOOKINGS_BOOKER_START_IDX",
+                        (repository, user, item) -> repository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(PAGE,
+                                user, NOW, NOW)),
+                query("findAllByBookerIdAndEndIsBefore", "BOOKINGS_BOOKER_START_IDX",
+                        (repository, user, item) -> repository.findAllByBookerIdAndEndIsBefore(PAGE, user, NOW)),
+                query("findAllByBookerIdAndStartIsAfter", "BOOKINGS_BOOKER_START_IDX",
+                        (repository, user, item) -> repository.findAllByBookerIdAndStartIsAfter(PAGE, user, NOW)),
+                query("findAllByBookerIdAndStatus", "BOOKINGS_BOOKER_STATUS_START_IDX",
+                        (repository, user, item) -> repository.findAllByBookerIdAndStatus(PAGE, user,
+                                BookingStatus.WAITING)),
+                query("findAllByOwnerId", "BOOKINGS_OWNER_START_IDX",
+                        (repository, user, item) -> repository.findAllByOwnerId(PAGE, user)),
+                query("findAllByOwnerIdAndStartIsBeforeAndEndIsAfter", "BOOKINGS_OWNER_START_IDX",
+                        (repository, user, item) -> repository.findAllByOwnerIdAndStartIsBeforeAndEndIsAfter(PAGE,
+                                user, NOW, NOW)),
+                query("findAllByOwnerIdAndEndIsBefore", "BOOKINGS_OWNER_START_IDX",
+                        (repository, user, item) -> repository.findAllByOwnerIdAndEndIsBefore(PAGE, user, NOW)),
+                query("findAllByOwnerIdAndStartIsAfter", "BOOKINGS_OWNER_START_IDX",
+                        (repository, user, item) -> repository.findAllByOwnerIdAndStartIsAfter(PAGE, user, NOW)),
+                query("findAllByOwnerIdAndStatus", "BOOKINGS_OWNER_STATUS_START_IDX",
+                        (repository, user, item) -> repository.findAllByOwnerIdAndStatus(PAGE, user,
+                                BookingStatus.WAITING)),
+                keyset(Party.BOOKER, BookingState.ALL, "BOOKINGS_BOOKER_START_IDX"),
+                keyset(Party.BOOKER, BookingState.CURRENT, "BOOKINGS_BOOKER_START_IDX"),
+                keyset(Party.BOOKER, BookingState.PAST, "BOOKINGS_BOOKER_START_IDX"),
+                keyset(Party.BOOKER, BookingState.FUTURE, "BOOKINGS_BOOKER_START_IDX"),
+                keyset(Party.BOOKER, BookingState.WAITING, "BOOKINGS_BOOKER_STATUS_START_IDX"),
+                keyset(Party.BOOKER, BookingState.REJECTED, "BOOKINGS_BOOKER_STATUS_START_IDX"),
+                keyset(Party.OWNER, BookingState.ALL, "BOOKINGS_OWNER_START_IDX"),
+                keyset(Party.OWNER, BookingState.CURRENT, "BOOKINGS_OWNER_START_IDX"),
+                keyset(Party.OWNER, BookingState.PAST, "BOOKINGS_OWNER_START_IDX"),
+                keyset(Party.OWNER, BookingState.FUTURE, "BOOKINGS_OWNER_START_IDX"),
+                keyset(Party.OWNER, BookingState.WAITING, "BOOKINGS_OWNER_STATUS_START_IDX"),
+                keyset(Party.OWNER, BookingState.REJECTED, "BOOKINGS_OWNER_STATUS_START_IDX"),
+                query("findLastAndNextApprovedByItemId", "BOOKINGS_ITEM_STATUS_(START|FINISH)_IDX",
+                        (repository, user, item) -> repository.findLastAndNextApprovedByItemId(item, NOW)),
+                query("findLastAndNextApprovedByItemIdIn", "BOOKINGS_ITEM_STATUS_START_IDX",
+                        (repository, user, item) -> repository.findLastAndNextApprovedByItemIdIn(List.of(item, item + 1),
+                                NOW)),
+                query("findPastBookerName", "BOOKINGS_ITEM_STATUS_FINISH_IDX",
+                        (repository, user, item) -> repository.findPastBookerName(item, user, BookingStatus.APPROVED,
+                                NOW))
+        );
+    }
+
+    /**
+     * Runs the repository method, takes the SQL Hibernate sent for it and explains that statement, so a change
+     * to a query is checked against the indexes without copying it here. H2 plans placeholders without values.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesIndexScan(String method, String index, RepositoryCall call) {
+        StatementCapture.STATEMENTS.clear();
+        call.run(bookingRepository, userId, itemId);
+        String sql = StatementCapture.STATEMENTS.stream()
+                .filter(statement -> statement.contains("bookings"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+
+        assertThat(plan).as(method)
+                .doesNotContain("BOOKINGS.tableScan")
+                .containsPattern(index);
+    }
+
+    private static Arguments query(String method, String index, RepositoryCall call) {
+        return Arguments.of(method, index, call);
+    }
+
+    private static Arguments keyset(Party party, BookingState state, String index) {
+        return query("findBefore " + party + " " + state, index,
+                (repository, user, item) -> repository.findBefore(party, user, state, NOW, CURSOR, 10));
+    }
+
+    private void dropForeignKey(String column) {
+        String name = jdbcTemplate.queryForObject("select k.constraint_name " +
+                "from information_schema.key_column_usage as k " +
+                "join information_schema.table_constraints as c on c.constraint_name = k.constraint_name " +
+                "where c.constraint_type = 'FOREIGN KEY' and k.table_name = 'BOOKINGS' and k.column_name = ?",
+                String.class, column);
+        jdbcTemplate.execute("alter table bookings drop constraint " + name);
+    }
+
+    private interface RepositoryCall {
+        void run(BookingRepository repository, Long userId, Long itemId);
+    }
+
+    public static class StatementCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
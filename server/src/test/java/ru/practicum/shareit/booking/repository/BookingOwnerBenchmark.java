@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares owner booking lists filtered through the items join with the denormalised owner_id column.
+ * Run with {@code mvn -Pbenchmark test -pl server -Dbenchmark.spring.profile=default}
+ * against a scratch PostgreSQL database.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class BookingOwnerBenchmark {
+
+    private static final String JOIN_ALL = "select b.* from bookings as b join items as i on i.id = b.item_id " +
+            "where i.user_id = ? order by b.start desc, b.id desc limit 10";
+    private static final String OWNER_ALL = "select b.* from bookings as b " +
+            "where b.owner_id = ? order by b.start desc, b.id desc limit 10";
+    private static final String JOIN_WAITING = "select b.* from bookings as b join items as i on i.id = b.item_id " +
+            "where i.user_id = ? and b.status = 'WAITING' order by b.start desc, b.id desc limit 10";
+    private static final String OWNER_WAITING = "select b.* from bookings as b " +
+            "where b.owner_id = ? and b.status = 'WAITING' order by b.start desc, b.id desc limit 10";
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED"};
+    private static final int OWNERS = 100;
+    private static final int ITEMS_PER_OWNER = 50;
+    private static final int BATCH = 10_000;
+    private static final int RUNS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> ownerIds = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000})
+    void compareJoinAndDenormalisedOwner(int bookingCount) {
+        seed(bookingCount);
+
+        log.info("Бронирования владельца по {} записям: join - {} мс, owner_id - {} мс; " +
+                        "WAITING: join - {} мс, owner_id - {} мс", bookingCount,
+                format(measure(JOIN_ALL)), format(measure(OWNER_ALL)),
+                format(measure(JOIN_WAITING)), format(measure(OWNER_WAITING)));
+        assertThat(jdbcTemplate.queryForList(OWNER_ALL, ownerIds.get(0)))
+                .isEqualTo(jdbcTemplate.queryForList(JOIN_ALL, ownerIds.get(0)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ownerIds.forEach(id -> jdbcTemplate.update("delete from users where id = ?", id));
+        ownerIds.clear();
+    }
+
+    private double measure(String sql) {
+        for (Long ownerId : ownerIds) {
+            jdbcTemplate.queryForList(sql, ownerId);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            jdbcTemplate.queryForList(sql, ownerIds.get(i % ownerIds.size()));
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+
+    private void seed(int bookingCount) {
+        String suffix = String.valueOf(System.nanoTime());
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> itemOwnerIds = new ArrayList<>();
+        for (int i = 0; i < OWNERS; i++) {
+            jdbcTemplate.update("insert into users (name, email) values ('benchmark', ?)",
+                    "benchmark" + i + "." + suffix + "@mail.ru");
+            Long ownerId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+            ownerIds.add(ownerId);
+            for (int j = 0; j < ITEMS_PER_OWNER; j++) {
+                jdbcTemplate.update("insert into items (user_id, name, description, available) " +
+                        "values (?, 'benchmark', 'benchmark', true)", ownerId);
+                itemIds.add(jdbcTemplate.queryForObject("select max(id) from items", Long.class));
+                itemOwnerIds.add(ownerId);
+            }
+        }
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < bookingCount; i++) {
+            int item = random.nextInt(itemIds.size());
+            LocalDateTime start = origin.plusHours(random.nextInt(24 * 365 * 3));
+            batch.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                    itemIds.get(item), ownerIds.get(random.nextInt(OWNERS)), itemOwnerIds.get(item),
+                    STATUSES[random.nextInt(STATUSES.length)]});
+            if (batch.size() == BATCH) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into bookings (start, finish, item_id, user_id, owner_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static String format(double millis) {
+        return String.format("%.3f", millis);
+    }
+}
@@ -6,15 +6,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOwnershipView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingKeysetRepository.Party;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -37,6 +46,7 @@ class BookingRepositoryTest {
                 .end(end)
                 .start(start)
                 .booker(booker)
+                .owner(owner)
                 .status(status)
                 .item(item)
                 .build();
@@ -193,4 +203,201 @@ class BookingRepositoryTest {
 
         assertThat(result.isEmpty()).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindLastAndNextApprovedByItemIdIn() {
+        LocalDateTime now = LocalDateTime.now();
+        Item secondItem = new Item();
+        secondItem.setName("saw");
+        secondItem.setDescription("zzz");
+        secondItem.setOwner(owner);
+        secondItem.setAvailable(true);
+        em.persist(secondItem);
+        bookingRepository.save(makeBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+        Booking last = bookingRepository.save(makeBooking(now.minusHours(5), now.minusHours(1),
+                BookingStatus.APPROVED));
+        bookingRepository.save(makeBooking(now.minusHours(2), now.minusHours(1).plusMinutes(1),
+                BookingStatus.REJECTED));
+        Booking next = bookingRepository.save(makeBooking(now.plusHours(1), now.plusHours(2),
+                BookingStatus.APPROVED));
+        bookingRepository.save(makeBooking(now.plusHours(3), now.plusHours(4), BookingStatus.APPROVED));
+
+        List<ItemBookingView> result = bookingRepository.findLastAndNextApprovedByItemIdIn(
+                List.of(item.getId(), secondItem.getId()), now);
+
+        assertThat(result.size()).isEqualTo(2);
+        ItemBookingView nextView = result.stream().filter(v -> "NEXT".equals(v.getKind())).findFirst().orElseThrow();
+        ItemBookingView lastView = result.stream().filter(v -> "LAST".equals(v.getKind())).findFirst().orElseThrow();
+        assertThat(nextView.getId()).isEqualTo(next.getId());
+        assertThat(nextView.getItemId()).isEqualTo(item.getId());
+        assertThat(nextView.getBookerId()).isEqualTo(booker.getId());
+        assertThat(lastView.getId()).isEqualTo(last.getId());
+    }
+
+    @Test
+    void testFindLastAndNextApprovedByItemId() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(makeBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+        Booking last = bookingRepository.save(makeBooking(now.minusHours(5), now.minusHours(1),
+                BookingStatus.APPROVED));
+        bookingRepository.save(makeBooking(now.minusHours(2), now.minusHours(1).plusMinutes(1),
+                BookingStatus.REJECTED));
+        Booking next = bookingRepository.save(makeBooking(now.plusHours(1), now.plusHours(2),
+                BookingStatus.APPROVED));
+        bookingRepository.save(makeBooking(now.plusHours(3), now.plusHours(4), BookingStatus.APPROVED));
+
+        List<ItemBookingView> result = bookingRepository.findLastAndNextApprovedByItemId(item.getId(), now);
+
+        assertThat(result.size()).isEqualTo(2);
+        ItemBookingView nextView = result.stream().filter(v -> "NEXT".equals(v.getKind())).findFirst().orElseThrow();
+        ItemBookingView lastView = result.stream().filter(v -> "LAST".equals(v.getKind())).findFirst().orElseThrow();
+        assertThat(nextView.getId()).isEqualTo(next.getId());
+        assertThat(nextView.getBookerId()).isEqualTo(booker.getId());
+        assertThat(lastView.getId()).isEqualTo(last.getId());
+    }
+
+    @Test
+    void testFindPastBookerName() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(makeBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+        bookingRepository.save(makeBooking(now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED));
+
+        assertThat(bookingRepository.findPastBookerName(item.getId(), booker.getId(), BookingStatus.APPROVED, now))
+                .contains("booker");
+        assertThat(bookingRepository.findPastBookerName(item.getId(), owner.getId(), BookingStatus.APPROVED, now))
+                .isEmpty();
+        assertThat(bookingRepository.findPastBookerName(item.getId(), booker.getId(), BookingStatus.APPROVED,
+                now.minusDays(4))).isEmpty();
+    }
+
+    @Test
+    void testFindOwnershipByIdIn() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking waiting = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.WAITING));
+        Booking approved = bookingRepository.save(makeBooking(start.plusHours(2), start.plusHours(3),
+                BookingStatus.APPROVED));
+
+        List<BookingOwnershipView> views = bookingRepository.findOwnershipByIdIn(
+                List.of(waiting.getId(), approved.getId(), approved.getId() + 1_000));
+
+        assertThat(views).extracting(BookingOwnershipView::getId, BookingOwnershipView::getStatus,
+                        BookingOwnershipView::getItemId, BookingOwnershipView::getOwnerId)
+                .containsExactlyInAnyOrder(
+                        tuple(waiting.getId(), BookingStatus.WAITING, item.getId(), owner.getId()),
+                        tuple(approved.getId(), BookingStatus.APPROVED, item.getId(), owner.getId()));
+    }
+
+    @Test
+    void testFindAllByIdInForUpdate() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking waiting = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.WAITING));
+        Booking approved = bookingRepository.save(makeBooking(start.plusHours(2), start.plusHours(3),
+                BookingStatus.APPROVED));
+        em.flush();
+        em.clear();
+
+        List<Booking> bookings = bookingRepository.findAllByIdInForUpdate(
+                List.of(approved.getId(), waiting.getId(), approved.getId() + 1_000));
+
+        assertThat(bookings).extracting(Booking::getId, Booking::getStatus)
+                .containsExactly(tuple(waiting.getId(), BookingStatus.WAITING),
+                        tuple(approved.getId(), BookingStatus.APPROVED));
+    }
+
+    @Test
+    void testUpdateStatusByIdInAndStatusNot() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking waiting = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.WAITING));
+        Booking approved = bookingRepository.save(makeBooking(start.plusHours(2), start.plusHours(3),
+                BookingStatus.APPROVED));
+        em.flush();
+
+        int updated = bookingRepository.updateStatusByIdInAndStatusNot(List.of(waiting.getId(), approved.getId()),
+                BookingStatus.REJECTED, BookingStatus.APPROVED);
+        em.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(bookingRepository.findById(waiting.getId())).get()
+                .extracting(Booking::getStatus).isEqualTo(BookingStatus.REJECTED);
+        assertThat(bookingRepository.findById(approved.getId())).get()
+                .extracting(Booking::getStatus).isEqualTo(BookingStatus.APPROVED);
+    }
+
+    @Test
+    void testFindBeforeForOwner() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = bookingRepository.save(makeBooking(start.plusHours(2), start.plusHours(3),
+                BookingStatus.APPROVED));
+        Booking second = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.APPROVED));
+        Booking third = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.WAITING));
+        Booking fourth = bookingRepository.save(makeBooking(start.minusHours(2), start.minusHours(1),
+                BookingStatus.APPROVED));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> firstPage = bookingRepository.findBefore(Party.OWNER, owner.getId(), BookingState.ALL, now,
+                new BookingCursor(start.plusDays(1), Long.MAX_VALUE), 2);
+        Booking last = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.findBefore(Party.OWNER, owner.getId(), BookingState.ALL, now,
+                new BookingCursor(last.getStart(), last.getId()), 2);
+
+        assertThat(firstPage).containsExactly(first, third);
+        assertThat(secondPage).containsExactly(second, fourth);
+        assertThat(bookingRepository.findBefore(Party.BOOKER, booker.getId(), BookingState.WAITING, now,
+                new BookingCursor(start.plusDays(1), Long.MAX_VALUE), 10)).containsExactly(third);
+        assertThat(bookingRepository.findBefore(Party.OWNER, booker.getId(), BookingState.ALL, now,
+                new BookingCursor(start.plusDays(1), Long.MAX_VALUE), 10)).isEmpty();
+    }
+
+    @Test
+    void testFindBeforeByTime() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = bookingRepository.save(makeBooking(now.minusDays(3), now.minusDays(2),
+                BookingStatus.APPROVED));
+        Booking current = bookingRepository.save(makeBooking(now.minusDays(1), now.plusDays(1),
+                BookingStatus.APPROVED));
+        Booking future = bookingRepository.save(makeBooking(now.plusDays(2), now.plusDays(3),
+                BookingStatus.REJECTED));
+        BookingCursor top = new BookingCursor(now.plusYears(1), Long.MAX_VALUE);
+
+        assertThat(bookingRepository.findBefore(Party.BOOKER, booker.getId(), BookingState.PAST, now, top, 10))
+                .containsExactly(past);
+        assertThat(bookingRepository.findBefore(Party.BOOKER, booker.getId(), BookingState.CURRENT, now, top, 10))
+                .containsExactly(current);
+        assertThat(bookingRepository.findBefore(Party.BOOKER, booker.getId(), BookingState.FUTURE, now, top, 10))
+                .containsExactly(future);
+        assertThat(bookingRepository.findBefore(Party.OWNER, owner.getId(), BookingState.REJECTED, now, top, 10))
+                .containsExactly(future);
+    }
+
+    @Test
+    void testFindAllByOwnerIdAndStatus() {
+        LocalDateTime start = LocalDateTime.now();
+        Booking waiting = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.WAITING));
+        bookingRepository.save(makeBooking(start.plusHours(2), start.plusHours(3), BookingStatus.APPROVED));
+
+        List<Booking> result = bookingRepository.findAllByOwnerIdAndStatus(pageRequest, owner.getId(),
+                BookingStatus.WAITING);
+
+        assertThat(result).containsExactly(waiting);
+        assertThat(bookingRepository.findAllByOwnerId(pageRequest, booker.getId())).isEmpty();
+    }
+
+    @Test
+    void testStreamAllByOwnerId() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking earlier = bookingRepository.save(makeBooking(start, start.plusHours(1), BookingStatus.APPROVED));
+        Booking later = bookingRepository.save(makeBooking(start.plusDays(1), start.plusDays(1).plusHours(1),
+                BookingStatus.WAITING));
+        Booking sameStart = bookingRepository.save(makeBooking(start, start.plusHours(2), BookingStatus.REJECTED));
+
+        List<Long> ids;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(owner.getId())) {
+            ids = bookings.map(Booking::getId).collect(Collectors.toList());
+        }
+
+        assertThat(ids).containsExactly(later.getId(), sameStart.getId(), earlier.getId());
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(booker.getId())) {
+            assertThat(bookings).isEmpty();
+        }
+    }
+}
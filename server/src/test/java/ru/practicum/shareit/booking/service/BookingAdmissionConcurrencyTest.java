@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.exception.InvalidBookingException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingAdmissionConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "admission.owner@mail.ru"));
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker" + i, "admission.booker" + i + "@mail.ru")));
+        }
+        item = itemRepository.save(new Item(null, owner, "hammer", "knock knock", true, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll(bookers);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void save_whenConcurrentRequestsOverlap_thenNoOverlappingBookingsAreAdmitted() throws Exception {
+        LocalDateTime origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            User booker = bookers.get(t);
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    BookingRequestDto requestDto = new BookingRequestDto();
+                    requestDto.setItemId(item.getId());
+                    requestDto.setStart(origin.plusHours(random.nextInt(48)));
+                    requestDto.setEnd(requestDto.getStart().plusHours(1 + random.nextInt(4)));
+                    try {
+                        bookingService.save(booker.getId(), requestDto);
+                        admitted.incrementAndGet();
+                    } catch (InvalidBookingException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Integer overlaps = jdbcTemplate.queryForObject("select count(*) from bookings as a " +
+                "join bookings as b on a.item_id = b.item_id and a.id < b.id " +
+                "where a.item_id = ? and a.start < b.finish and a.finish > b.start " +
+                "and a.status in ('WAITING', 'APPROVED') and b.status in ('WAITING', 'APPROVED')",
+                Integer.class, item.getId());
+        Integer stored = jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ?",
+                Integer.class, item.getId());
+
+        assertThat(overlaps).isZero();
+        assertThat(admitted.get()).isPositive().isEqualTo(stored);
+        assertThat(admitted.get() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+    }
+}
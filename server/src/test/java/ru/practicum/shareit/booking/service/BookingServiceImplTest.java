@@ -7,27 +7,41 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOwnershipView;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingKeysetRepository.Party;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.InvalidBookingException;
 import ru.practicum.shareit.exception.ModelNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +49,17 @@ class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceChecker userExistenceChecker;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private BookingServiceImpl bookingService;
     @Captor
@@ -69,7 +91,7 @@ class BookingServiceImplTest {
 
         BookingRequestDto requestDto = makeBookingRequestDto(1L);
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(requestDto.getItemId())).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(requestDto.getItemId())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> bookingService.save(1L, requestDto))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -85,7 +107,7 @@ class BookingServiceImplTest {
 
         BookingRequestDto requestDto = makeBookingRequestDto(1L);
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(requestDto.getItemId())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(requestDto.getItemId())).thenReturn(Optional.of(item));
 
         assertThatThrownBy(() -> bookingService.save(1L, requestDto))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -101,13 +123,31 @@ class BookingServiceImplTest {
 
         BookingRequestDto requestDto = makeBookingRequestDto(1L);
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(requestDto.getItemId())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(requestDto.getItemId())).thenReturn(Optional.of(item));
 
         assertThatThrownBy(() -> bookingService.save(1L, requestDto))
                 .isInstanceOf(InvalidBookingException.class)
                 .hasMessage("Предмет hammer c id - 1 недоступен для бронирования!");
     }
 
+    @Test
+    void save_whenItemAlreadyBookedForPeriod_thenThrowInvalidBooking() {
+        long userId = 1L;
+        User booker = new User(1L, "Booker", "booker@mail.ru");
+        User owner = new User(2L, "Booker", "booker@mail.ru");
+        Item item = new Item(1L, owner, "hammer", "knock knock", true, null);
+        BookingRequestDto requestDto = makeBookingRequestDto(1L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findByIdForUpdate(requestDto.getItemId())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(
+                eq(1L), any(), eq(requestDto.getEnd()), eq(requestDto.getStart()))).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.save(userId, requestDto))
+                .isInstanceOf(InvalidBookingException.class)
+                .hasMessageStartingWith("Предмет hammer c id - 1 уже забронирован");
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void save_whenActionIsValid_thenInvokeSaveMethodAndReturnDto() {
         long userId = 1L;
@@ -124,13 +164,14 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(requestDto.getItemId())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(requestDto.getItemId())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingDto dto = bookingService.save(userId, requestDto);
 
         assertThat(dto.getBooker().getName()).isEqualTo("Booker");
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, times(1)).save(bookingArgumentCaptor.capture());
+        assertThat(bookingArgumentCaptor.getValue().getOwner()).isEqualTo(owner);
     }
 
     @Test
@@ -215,6 +256,37 @@ class BookingServiceImplTest {
         verify(bookingRepository, times(1)).save(bookingArgumentCaptor.capture());
         Booking result = bookingArgumentCaptor.getValue();
         assertThat(result.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        verify(itemBookingSummaryService).refresh(item.getId());
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(item.getId(), ItemChangedEvent.Kind.BOOKING));
+    }
+
+    @Test
+    void update_whenRejectedBookingOverlapsActiveOne_thenThrowInvalidBooking() {
+        long ownerId = 2L;
+        long bookId = 1L;
+        User booker = new User(1L, "Booker", "booker@mail.ru");
+        User owner = new User(ownerId, "Booker", "booker@mail.ru");
+        Item item = new Item(1L, owner, "hammer", "knock knock", true, null);
+        BookingRequestDto requestDto = makeBookingRequestDto(1L);
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(requestDto.getStart())
+                .end(requestDto.getEnd())
+                .status(BookingStatus.REJECTED)
+                .item(item)
+                .booker(booker)
+                .build();
+        when(bookingRepository.findById(bookId)).thenReturn(Optional.of(booking));
+        when(itemRepository.findByIdForUpdate(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(
+                eq(1L), any(), eq(requestDto.getEnd()), eq(requestDto.getStart()))).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.update(bookId, ownerId, true))
+                .isInstanceOf(InvalidBookingException.class)
+                .hasMessageStartingWith("Предмет hammer c id - 1 уже забронирован");
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.REJECTED);
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(itemBookingSummaryService, eventPublisher);
     }
 
     @Test
@@ -241,6 +313,140 @@ class BookingServiceImplTest {
         verify(bookingRepository, times(1)).save(bookingArgumentCaptor.capture());
         Booking result = bookingArgumentCaptor.getValue();
         assertThat(result.getStatus()).isEqualTo(BookingStatus.REJECTED);
+        verifyNoInteractions(itemBookingSummaryService, eventPublisher);
+    }
+
+    @Test
+    void updateAll_whenSomeBookingsCannotChange_thenReportThemAndApproveTheRest() {
+        long ownerId = 2L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1L, 2L, 3L, 4L, 5L))).thenReturn(List.of(
+                ownership(1L, BookingStatus.WAITING, 10L, ownerId),
+                ownership(2L, BookingStatus.APPROVED, 10L, ownerId),
+                ownership(3L, BookingStatus.WAITING, 20L, 3L),
+                ownership(4L, BookingStatus.REJECTED, 30L, ownerId)));
+        when(itemRepository.findAllByIdInForUpdate(Set.of(10L, 30L))).thenReturn(List.of(item(10L), item(30L)));
+        when(bookingRepository.findAllByIdInForUpdate(List.of(1L, 4L))).thenReturn(List.of(
+                locked(1L, BookingStatus.WAITING, start), locked(4L, BookingStatus.REJECTED, start)));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(30L), any(),
+                eq(start.plusHours(1)), eq(start))).thenReturn(false);
+
+        List<BookingBatchResult> results = bookingService.updateAll(List.of(1L, 2L, 3L, 4L, 5L, 1L), ownerId, true);
+
+        assertThat(results).containsExactly(
+                BookingBatchResult.builder().id(1L).status(BookingStatus.APPROVED).build(),
+                BookingBatchResult.builder().id(2L).error("Бронирование с id 2 уже подтверждено!").build(),
+                BookingBatchResult.builder().id(3L)
+                        .error("Статус бронирования может менять только владелец вещи!").build(),
+                BookingBatchResult.builder().id(4L).status(BookingStatus.APPROVED).build(),
+                BookingBatchResult.builder().id(5L).error("Бронирование с id - 5 не найдено!").build());
+        verify(bookingRepository, times(1)).findOwnershipByIdIn(any());
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository, times(1)).updateStatusByIdInAndStatusNot(List.of(1L, 4L), BookingStatus.APPROVED,
+                BookingStatus.APPROVED);
+        verify(itemBookingSummaryService, times(1)).refresh(10L);
+        verify(itemBookingSummaryService, times(1)).refresh(30L);
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(10L, ItemChangedEvent.Kind.BOOKING));
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(30L, ItemChangedEvent.Kind.BOOKING));
+        verifyNoMoreInteractions(itemBookingSummaryService, eventPublisher);
+    }
+
+    @Test
+    void updateAll_whenFalse_thenRejectWithoutRefreshingSummaries() {
+        long ownerId = 2L;
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1L))).thenReturn(List.of(
+                ownership(1L, BookingStatus.WAITING, 10L, ownerId)));
+        when(bookingRepository.findAllByIdInForUpdate(List.of(1L))).thenReturn(List.of(
+                locked(1L, BookingStatus.WAITING, LocalDateTime.now().plusDays(1))));
+
+        List<BookingBatchResult> results = bookingService.updateAll(List.of(1L), ownerId, false);
+
+        assertThat(results).containsExactly(
+                BookingBatchResult.builder().id(1L).status(BookingStatus.REJECTED).build());
+        verify(bookingRepository, times(1)).updateStatusByIdInAndStatusNot(List.of(1L), BookingStatus.REJECTED,
+                BookingStatus.APPROVED);
+        verifyNoInteractions(itemRepository, itemBookingSummaryService, eventPublisher);
+    }
+
+    @Test
+    void updateAll_whenNothingCanChange_thenDoNotRunUpdate() {
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1L))).thenReturn(List.of(
+                ownership(1L, BookingStatus.WAITING, 10L, 3L)));
+
+        List<BookingBatchResult> results = bookingService.updateAll(List.of(1L), 2L, true);
+
+        assertThat(results).extracting(BookingBatchResult::getError)
+                .containsExactly("Статус бронирования может менять только владелец вещи!");
+        verify(bookingRepository, never()).findAllByIdInForUpdate(any());
+        verify(bookingRepository, never()).updateStatusByIdInAndStatusNot(any(), any(), any());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void updateAll_whenBookingApprovedConcurrently_thenReportItAndRejectTheRest() {
+        long ownerId = 2L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                ownership(1L, BookingStatus.WAITING, 10L, ownerId),
+                ownership(2L, BookingStatus.WAITING, 10L, ownerId)));
+        when(bookingRepository.findAllByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                locked(1L, BookingStatus.WAITING, start), locked(2L, BookingStatus.APPROVED, start.plusDays(1))));
+
+        List<BookingBatchResult> results = bookingService.updateAll(List.of(1L, 2L), ownerId, false);
+
+        assertThat(results).containsExactly(
+                BookingBatchResult.builder().id(1L).status(BookingStatus.REJECTED).build(),
+                BookingBatchResult.builder().id(2L).error("Бронирование с id 2 уже подтверждено!").build());
+        verify(bookingRepository, times(1)).updateStatusByIdInAndStatusNot(List.of(1L), BookingStatus.REJECTED,
+                BookingStatus.APPROVED);
+        verifyNoInteractions(itemBookingSummaryService, eventPublisher);
+    }
+
+    @Test
+    void updateAll_whenRejectedBookingOverlapsActiveOne_thenReportItAndApproveTheRest() {
+        long ownerId = 2L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                ownership(1L, BookingStatus.REJECTED, 10L, ownerId),
+                ownership(2L, BookingStatus.WAITING, 10L, ownerId)));
+        when(itemRepository.findAllByIdInForUpdate(Set.of(10L))).thenReturn(List.of(item(10L)));
+        when(bookingRepository.findAllByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                locked(1L, BookingStatus.REJECTED, start), locked(2L, BookingStatus.WAITING, start.plusDays(1))));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(10L), any(),
+                eq(start.plusHours(1)), eq(start))).thenReturn(true);
+
+        List<BookingBatchResult> results = bookingService.updateAll(List.of(1L, 2L), ownerId, true);
+
+        assertThat(results).containsExactly(
+                BookingBatchResult.builder().id(1L).error(String.format(
+                        "Предмет item10 c id - 10 уже забронирован на период с %s по %s!",
+                        start, start.plusHours(1))).build(),
+                BookingBatchResult.builder().id(2L).status(BookingStatus.APPROVED).build());
+        verify(bookingRepository, times(1)).updateStatusByIdInAndStatusNot(List.of(2L), BookingStatus.APPROVED,
+                BookingStatus.APPROVED);
+        verify(itemBookingSummaryService, times(1)).refresh(10L);
+    }
+
+    @Test
+    void updateAll_whenRejectedBookingsInBatchOverlap_thenApproveOnlyTheFirst() {
+        long ownerId = 2L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingRepository.findOwnershipByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                ownership(1L, BookingStatus.REJECTED, 10L, ownerId),
+                ownership(2L, BookingStatus.REJECTED, 10L, ownerId)));
+        when(itemRepository.findAllByIdInForUpdate(Set.of(10L))).thenReturn(List.of(item(10L)));
+        when(bookingRepository.findAllByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                locked(1L, BookingStatus.REJECTED, start), locked(2L, BookingStatus.REJECTED, start.plusMinutes(30))));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(10L), any(), any(), any()))
+                .thenReturn(false);
+
+        List<BookingBatchResult> results = bookingService.updateAll(List.of(1L, 2L), ownerId, true);
+
+        assertThat(results).extracting(BookingBatchResult::getId, BookingBatchResult::getStatus)
+                .containsExactly(tuple(1L, BookingStatus.APPROVED), tuple(2L, null));
+        assertThat(results.get(1).getError()).startsWith("Предмет item10 c id - 10 уже забронирован");
+        verify(bookingRepository, times(1)).updateStatusByIdInAndStatusNot(List.of(1L), BookingStatus.APPROVED,
+                BookingStatus.APPROVED);
     }
 
     @Test
@@ -306,7 +512,7 @@ class BookingServiceImplTest {
     void findByBooker_whenBookerNotFound_thenThrowModelNotFound() {
         long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceChecker.exists(userId)).thenReturn(false);
 
         assertThatThrownBy(() -> bookingService.findByBooker(userId, BookingState.ALL, 0, 10))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -318,10 +524,9 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User booker = new User(userId, "Booker", "booker@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByBooker(userId, BookingState.ALL, 0, 10);
 
@@ -334,10 +539,9 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User booker = new User(userId, "Booker", "booker@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByBooker(userId, BookingState.CURRENT, 0, 10);
 
@@ -353,10 +557,9 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User booker = new User(userId, "Booker", "booker@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByBooker(userId, BookingState.PAST, 0, 10);
 
@@ -371,10 +574,9 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User booker = new User(userId, "Booker", "booker@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByBooker(userId, BookingState.FUTURE, 0, 10);
 
@@ -389,10 +591,9 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User booker = new User(userId, "Booker", "booker@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByBooker(userId, BookingState.REJECTED, 0, 10);
 
@@ -407,10 +608,9 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User booker = new User(userId, "Booker", "booker@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByBooker(userId, BookingState.WAITING, 0, 10);
 
@@ -424,7 +624,7 @@ class BookingServiceImplTest {
     void findByOwner_whenOwnerNotFound_thenThrowModelNotFound() {
         long ownerId = 1L;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.empty());
+        when(userExistenceChecker.exists(ownerId)).thenReturn(false);
 
         assertThatThrownBy(() -> bookingService.findByOwner(ownerId, BookingState.ALL, 0, 10))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -436,14 +636,13 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User owner = new User(userId, "Owner", "owner@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByOwner(userId, BookingState.ALL, 0, 10);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerId(
+        verify(bookingRepository, times(1)).findAllByOwnerId(
                 request,
                 userId);
     }
@@ -453,14 +652,13 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User owner = new User(userId, "Owner", "owner@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByOwner(userId, BookingState.CURRENT, 0, 10);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(
+        verify(bookingRepository, times(1)).findAllByOwnerIdAndStartIsBeforeAndEndIsAfter(
                 eq(request),
                 eq(userId),
                 any(),
@@ -472,14 +670,13 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User owner = new User(userId, "Owner", "owner@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByOwner(userId, BookingState.PAST, 0, 10);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndEndIsBefore(
+        verify(bookingRepository, times(1)).findAllByOwnerIdAndEndIsBefore(
                 eq(request),
                 eq(userId),
                 any());
@@ -490,14 +687,13 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User owner = new User(userId, "Owner", "owner@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByOwner(userId, BookingState.FUTURE, 0, 10);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartIsAfter(
+        verify(bookingRepository, times(1)).findAllByOwnerIdAndStartIsAfter(
                 eq(request),
                 eq(userId),
                 any());
@@ -508,14 +704,13 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User owner = new User(userId, "Owner", "owner@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByOwner(userId, BookingState.REJECTED, 0, 10);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatus(
+        verify(bookingRepository, times(1)).findAllByOwnerIdAndStatus(
                 request,
                 userId,
                 BookingStatus.REJECTED);
@@ -526,18 +721,124 @@ class BookingServiceImplTest {
         long userId = 1L;
         int from = 1;
         int size = 10;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         PageRequest request = PageRequest.of(from / size, size, sort);
-        User owner = new User(userId, "Owner", "owner@mail.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
 
         bookingService.findByOwner(userId, BookingState.WAITING, 0, 10);
 
-        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStatus(
+        verify(bookingRepository, times(1)).findAllByOwnerIdAndStatus(
                 request,
                 userId,
                 BookingStatus.WAITING);
     }
 
+    @Test
+    void findByBookerAfter_whenStatePast_thenSeekFromCursor() {
+        long userId = 1L;
+        int size = 10;
+        BookingCursor after = new BookingCursor(LocalDateTime.now().minusDays(1), 5L);
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
+
+        bookingService.findByBookerAfter(userId, BookingState.PAST, after, size);
+
+        verify(bookingRepository, times(1)).findBefore(
+                eq(Party.BOOKER),
+                eq(userId),
+                eq(BookingState.PAST),
+                any(),
+                eq(after),
+                eq(size));
+    }
 
-}
\ No newline at end of file
+    @Test
+    void findByOwnerAfter_whenStateWaiting_thenSeekOwnerBookingsFromCursor() {
+        long userId = 1L;
+        int size = 10;
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(1), 5L);
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
+
+        bookingService.findByOwnerAfter(userId, BookingState.WAITING, after, size);
+
+        verify(bookingRepository, times(1)).findBefore(
+                eq(Party.OWNER),
+                eq(userId),
+                eq(BookingState.WAITING),
+                any(),
+                eq(after),
+                eq(size));
+    }
+
+    @Test
+    void findByOwnerAfter_whenOwnerNotFound_thenThrowModelNotFound() {
+        long userId = 1L;
+        BookingCursor after = new BookingCursor(LocalDateTime.now(), 5L);
+        when(userExistenceChecker.exists(userId)).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.findByOwnerAfter(userId, BookingState.ALL, after, 10))
+                .isInstanceOf(ModelNotFoundException.class)
+                .hasMessage("Пользователь с id 1 не найден!");
+    }
+
+    @Test
+    void exportByOwner_whenOwnerNotFound_thenThrowModelNotFound() {
+        when(userExistenceChecker.exists(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.exportByOwner(1L, bookingDto -> { }))
+                .isInstanceOf(ModelNotFoundException.class)
+                .hasMessage("Пользователь с id 1 не найден!");
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void exportByOwner_whenOwnerHasBookings_thenPassEveryBookingToConsumer() {
+        User booker = new User(1L, "Booker", "booker@mail.ru");
+        User owner = new User(2L, "Owner", "owner@mail.ru");
+        Item item = new Item(1L, owner, "hammer", "knock knock", true, null);
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++) {
+            bookings.add(Booking.builder().id(id).item(item).booker(booker).owner(owner)
+                    .status(BookingStatus.APPROVED).build());
+        }
+        when(userExistenceChecker.exists(2L)).thenReturn(true);
+        when(bookingRepository.streamAllByOwnerId(2L)).thenReturn(bookings.stream());
+        List<Long> exported = new ArrayList<>();
+
+        bookingService.exportByOwner(2L, bookingDto -> exported.add(bookingDto.getId()));
+
+        assertThat(exported).hasSize(1001).startsWith(1L).endsWith(1001L);
+        verify(entityManager, times(2)).clear();
+    }
+
+    private static Item item(Long id) {
+        return new Item(id, new User(2L, "Owner", "owner@mail.ru"), "item" + id, "some item", true, null);
+    }
+
+    private static Booking locked(Long id, BookingStatus status, LocalDateTime start) {
+        return Booking.builder().id(id).start(start).end(start.plusHours(1)).status(status).build();
+    }
+
+    private static BookingOwnershipView ownership(Long id, BookingStatus status, Long itemId, Long ownerId) {
+        return new BookingOwnershipView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.exception.ModelNotFoundException;
 import ru.practicum.shareit.exception.UserHaveNotAccessException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentRequest;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.service.ItemService;
@@ -75,6 +76,33 @@ class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void saveAll_whenResultsReturned_thenStatusIsOkAndResultsKeepOrder() throws Exception {
+        ItemDto first = ItemDto.builder().name("item").description("item to save").available(true).build();
+        ItemDto second = ItemDto.builder().name("item").description("item to save").available(true).requestId(5L)
+                .build();
+        List<ItemDto> dtos = List.of(first, second);
+        ItemDto saved = ItemDto.builder().id(1L).name("item").description("item to save").available(true).build();
+        when(itemService.saveAll(1L, dtos)).thenReturn(List.of(
+                ItemBatchResult.builder().item(saved).build(),
+                ItemBatchResult.builder().error("Запрос с id - 5 не найден!").build()));
+
+        String result = mockMvc.perform(post("/items/batch")
+                        .content(objectMapper.writeValueAsString(dtos))
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(result).isEqualTo(objectMapper.writeValueAsString(List.of(
+                ItemBatchResult.builder().item(saved).build(),
+                ItemBatchResult.builder().error("Запрос с id - 5 не найден!").build())));
+    }
+
     @Test
     void update_whenReturnedDto_thenStatusIsOK() throws Exception {
         ItemDto dto = ItemDto.builder()
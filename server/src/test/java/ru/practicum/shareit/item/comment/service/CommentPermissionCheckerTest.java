@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.comment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.InvalidBookingException;
+import ru.practicum.shareit.exception.ModelNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentPermissionCheckerTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
+    private CommentPermissionChecker checker;
+
+    @BeforeEach
+    void setUp() {
+        checker = new CommentPermissionChecker(bookingRepository, itemRepository, userExistenceChecker,
+                Duration.ofMinutes(10), 100);
+    }
+
+    private void mockPastBooker(Optional<String> name) {
+        when(bookingRepository.findPastBookerName(eq(1L), eq(1L), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class))).thenReturn(name);
+    }
+
+    @Test
+    void authorName_whenUserBookedItem_thenQueryOnceAndReturnCachedName() {
+        mockPastBooker(Optional.of("Commenter"));
+
+        assertThat(checker.authorName(1L, 1L)).isEqualTo("Commenter");
+        assertThat(checker.authorName(1L, 1L)).isEqualTo("Commenter");
+
+        verify(bookingRepository, times(1)).findPastBookerName(eq(1L), eq(1L), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class));
+        verifyNoInteractions(itemRepository, userExistenceChecker);
+    }
+
+    @Test
+    void authorName_whenItemDoesNotExist_thenThrowModelNotFoundException() {
+        mockPastBooker(Optional.empty());
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> checker.authorName(1L, 1L))
+                .isInstanceOf(ModelNotFoundException.class)
+                .hasMessage("Предмет с id - 1 не найден!");
+    }
+
+    @Test
+    void authorName_whenUserDoesNotExist_thenThrowModelNotFoundException() {
+        mockPastBooker(Optional.empty());
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceChecker.exists(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> checker.authorName(1L, 1L))
+                .isInstanceOf(ModelNotFoundException.class)
+                .hasMessage("Пользователь с id - 1 не найден!");
+    }
+
+    @Test
+    void authorName_whenUserNeverBookedItem_thenThrowInvalidBookingExceptionAndDoNotCache() {
+        mockPastBooker(Optional.empty());
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(userExistenceChecker.exists(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> checker.authorName(1L, 1L))
+                .isInstanceOf(InvalidBookingException.class)
+                .hasMessage("Пользователь с id - 1 предмет с id - 1 ранее не бронировал!");
+        assertThatThrownBy(() -> checker.authorName(1L, 1L))
+                .isInstanceOf(InvalidBookingException.class);
+        verify(bookingRepository, times(2)).findPastBookerName(eq(1L), eq(1L), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void evict_whenUserDeleted_thenForgetTheirPermissionsAndThoseOnTheirItems() {
+        when(bookingRepository.findPastBookerName(anyLong(), anyLong(), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class))).thenReturn(Optional.of("Commenter"));
+        checker.authorName(1L, 1L);
+        checker.authorName(2L, 3L);
+        checker.authorName(4L, 3L);
+
+        checker.evict(1L, List.of(2L));
+        checker.authorName(1L, 1L);
+        checker.authorName(2L, 3L);
+        checker.authorName(4L, 3L);
+
+        verify(bookingRepository, times(2)).findPastBookerName(eq(1L), eq(1L), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class));
+        verify(bookingRepository, times(2)).findPastBookerName(eq(2L), eq(3L), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findPastBookerName(eq(4L), eq(3L), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.comment.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.CommentRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CommentWriteBehindTest {
+
+    private static final int THREADS = 8;
+    private static final int COMMENTS_PER_THREAD = 50;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private CommentWriteBehind commentWriteBehind;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CommentIdAllocator idAllocator;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "writebehind.owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "writebehind.booker@mail.ru"));
+        item = itemRepository.save(new Item(null, owner, "hammer", "knock knock", true, null));
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("insert into bookings (start, finish, item_id, user_id, owner_id, status) " +
+                        "values (?, ?, ?, ?, ?, 'APPROVED')", Timestamp.valueOf(start),
+                Timestamp.valueOf(start.plusDays(1)), item.getId(), booker.getId(), owner.getId());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.delete(booker);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void saveComment_whenManyConcurrentComments_thenAllAreReadableAtOnceAndStoredInBatches() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < COMMENTS_PER_THREAD; i++) {
+                    CommentRequest request = new CommentRequest();
+                    request.setText("comment" + i);
+                    CommentDto comment = itemService.saveComment(item.getId(), booker.getId(), request);
+                    assertThat(itemService.getById(item.getId(), booker.getId()).getComments())
+                            .extracting(CommentDto::getId).contains(comment.getId());
+                    ids.add(comment.getId());
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            ids.addAll(future.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        awaitNoPending();
+        List<Long> stored = jdbcTemplate.queryForList("select id from comments where item_id = ?", Long.class,
+                item.getId());
+
+        assertThat(ids).doesNotHaveDuplicates().hasSize(THREADS * COMMENTS_PER_THREAD);
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(itemService.getById(item.getId(), owner.getId()).getComments())
+                .extracting(CommentDto::getAuthorName).containsOnly("booker");
+    }
+
+    @Test
+    void write_whenRowBreaksConstraint_thenOnlyThatCommentIsDropped() throws Exception {
+        long missingUserId = booker.getId() + 1_000;
+        double droppedBefore = meterRegistry.counter("shareit.comments.dropped").count();
+        List<CommentDto> comments = List.of(
+                commentWriteBehind.accept(item.getId(), booker.getId(), "booker", "first"),
+                commentWriteBehind.accept(item.getId(), missingUserId, "ghost", "lost"),
+                commentWriteBehind.accept(item.getId(), booker.getId(), "booker", "second"));
+
+        awaitNoPending();
+        List<String> stored = jdbcTemplate.queryForList("select content from comments where item_id = ?",
+                String.class, item.getId());
+
+        assertThat(comments).extracting(CommentDto::getId).doesNotHaveDuplicates();
+        assertThat(stored).containsExactlyInAnyOrder("first", "second");
+        assertThat(meterRegistry.counter("shareit.comments.dropped").count()).isEqualTo(droppedBefore + 1);
+    }
+
+    @Test
+    void stop_whenCommentsQueued_thenStoreThemAndRefuseNewOnes() throws Exception {
+        CommentWriteBehind writeBehind = new CommentWriteBehind(idAllocator, jdbcTemplate, transactionTemplate,
+                eventPublisher, meterRegistry, 100, 10, Duration.ofSeconds(1));
+        List<CommentDto> comments = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            comments.add(writeBehind.accept(item.getId(), booker.getId(), "booker", "comment" + i));
+        }
+        writeBehind.start();
+
+        writeBehind.stop();
+        List<Long> stored = jdbcTemplate.queryForList("select id from comments where item_id = ?", Long.class,
+                item.getId());
+
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(
+                comments.stream().map(CommentDto::getId).collect(Collectors.toList()));
+        assertThat(writeBehind.pending(item.getId())).isEmpty();
+        assertThatThrownBy(() -> writeBehind.accept(item.getId(), booker.getId(), "booker", "late"))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    private void awaitNoPending() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!commentWriteBehind.pending(item.getId()).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(commentWriteBehind.pending(item.getId()).stream().map(CommentDto::getText)
+                .collect(Collectors.toList())).isEmpty();
+    }
+}
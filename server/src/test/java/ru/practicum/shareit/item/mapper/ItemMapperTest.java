@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -26,4 +27,14 @@ class ItemMapperTest {
         assertThat(shortItem.getName()).isEqualTo("item");
         assertThat(shortItem.getId()).isEqualTo(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void dtoToItem_whenDtoHasId_thenLeaveIdToDatabase() {
+        ItemDto dto = ItemDto.builder().id(5L).name("item").description("item to do smt").available(true).build();
+
+        Item item = ItemMapper.dtoToItem(dto);
+
+        assertThat(item.getId()).isNull();
+        assertThat(item.getName()).isEqualTo("item");
+    }
+}
@@ -6,12 +6,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDtoForRequests;
+import ru.practicum.shareit.item.dto.ItemSearchView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -113,4 +118,75 @@ class ItemRepositoryTest {
         assertThat(secondQueryList.size()).isEqualTo(1);
         assertThat(thirdQueryList.isEmpty()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByRequestIdIn_whenItemsAnswerRequests_thenReturnItemsWithRequestIds() {
+        ItemRequest request = ItemRequest.builder()
+                .description("need hammer")
+                .created(LocalDateTime.now())
+                .requester(user)
+                .build();
+        em.persist(request);
+        Item item = makeItem(1);
+        item.setRequest(request);
+        itemRepository.save(item);
+        itemRepository.save(makeItem(2));
+
+        List<ItemDtoForRequests> items = itemRepository.findByRequestIdIn(List.of(request.getId()));
+
+        assertThat(items.size()).isEqualTo(1);
+        assertThat(items.get(0).getName()).isEqualTo("Item1");
+        assertThat(items.get(0).getRequestId()).isEqualTo(request.getId());
+    }
+
+    @Test
+    void findOwnerIdById_whenItemExists_thenReturnOwnerId() {
+        Item item = itemRepository.save(makeItem(1));
+
+        assertThat(itemRepository.findOwnerIdById(item.getId())).contains(user.getId());
+        assertThat(itemRepository.findOwnerIdById(item.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    void findAllByIdInForUpdate_whenItemsExist_thenReturnThemSortedById() {
+        Item item = itemRepository.save(makeItem(1));
+        Item item2 = itemRepository.save(makeItem(2));
+
+        List<Item> items = itemRepository.findAllByIdInForUpdate(List.of(item2.getId(), item.getId(),
+                item2.getId() + 1));
+
+        assertThat(items).extracting(Item::getId).containsExactly(item.getId(), item2.getId());
+    }
+
+    @Test
+    void findAvailableAfter_whenItemAnswersRequest_thenViewHasRequestIdAndUnavailableItemsAreSkipped() {
+        ItemRequest request = ItemRequest.builder()
+                .description("need hammer")
+                .created(LocalDateTime.now())
+                .requester(user)
+                .build();
+        em.persist(request);
+        Item answer = makeItem(1);
+        answer.setRequest(request);
+        itemRepository.save(answer);
+        Item plain = itemRepository.save(makeItem(2));
+        Item unavailable = makeItem(3);
+        unavailable.setAvailable(false);
+        itemRepository.save(unavailable);
+
+        List<ItemSearchView> views = itemRepository.findAvailableAfter(PageRequest.of(0, 10), 0L);
+
+        assertThat(views).extracting(ItemSearchView::getId, ItemSearchView::getRequestId)
+                .containsExactly(tuple(answer.getId(), request.getId()), tuple(plain.getId(), null));
+    }
+
+    @Test
+    void findIdsByOwnerId_whenOwnerHasItems_thenReturnTheirIds() {
+        Item first = itemRepository.save(makeItem(1));
+        Item second = itemRepository.save(makeItem(2));
+
+        assertThat(itemRepository.findIdsByOwnerId(user.getId()))
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(itemRepository.findIdsByOwnerId(user.getId() + 1)).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GatewaySearchCacheNotifierTest {
+
+    private static final String INVALIDATE_URL = "http://gateway:8081/actuator/searchcache";
+    private static final String SECOND_INVALIDATE_URL = "http://gateway-2:8081/actuator/searchcache";
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private MockRestServiceServer gateway;
+    private GatewaySearchCacheNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        gateway = MockRestServiceServer.bindTo(restTemplate).build();
+        notifier = new GatewaySearchCacheNotifier(restTemplate,
+                List.of("http://gateway:8081", "http://gateway-2:8081"), tasks::add);
+    }
+
+    @Test
+    void onItemChanged_whenSeveralWritesBeforeSending_thenGatewayIsCalledOnce() {
+        gateway.expect(once(), requestTo(INVALIDATE_URL))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+        gateway.expect(once(), requestTo(SECOND_INVALIDATE_URL))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        notifier.onItemChanged(new ItemChangedEvent(1L, ItemChangedEvent.Kind.ITEM));
+        notifier.onItemChanged(new ItemChangedEvent(2L, ItemChangedEvent.Kind.ITEM));
+        tasks.forEach(Runnable::run);
+
+        gateway.verify();
+    }
+
+    @Test
+    void onItemChanged_whenWriteAfterSending_thenGatewayIsCalledAgain() {
+        gateway.expect(once(), requestTo(INVALIDATE_URL)).andRespond(withSuccess());
+        gateway.expect(once(), requestTo(SECOND_INVALIDATE_URL)).andRespond(withSuccess());
+        gateway.expect(once(), requestTo(INVALIDATE_URL)).andRespond(withSuccess());
+        gateway.expect(once(), requestTo(SECOND_INVALIDATE_URL)).andRespond(withSuccess());
+
+        notifier.onItemChanged(new ItemChangedEvent(1L, ItemChangedEvent.Kind.ITEM));
+        tasks.poll().run();
+        notifier.onItemChanged(new ItemChangedEvent(2L, ItemChangedEvent.Kind.ITEM));
+        tasks.poll().run();
+
+        gateway.verify();
+    }
+
+    @Test
+    void onItemChanged_whenGatewayFails_thenErrorIsNotPropagatedAndOtherGatewaysAreCalled() {
+        gateway.expect(once(), requestTo(INVALIDATE_URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        gateway.expect(once(), requestTo(SECOND_INVALIDATE_URL)).andRespond(withSuccess());
+
+        notifier.onItemChanged(new ItemChangedEvent(1L, ItemChangedEvent.Kind.ITEM));
+        tasks.poll().run();
+
+        gateway.verify();
+    }
+
+    @Test
+    void onItemChanged_whenOnlyCommentsOrBookingsChange_thenGatewayIsNotCalled() {
+        notifier.onItemChanged(new ItemChangedEvent(1L, ItemChangedEvent.Kind.COMMENT));
+        notifier.onItemChanged(new ItemChangedEvent(1L, ItemChangedEvent.Kind.BOOKING));
+
+        assertThat(tasks).isEmpty();
+        gateway.verify();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private InMemoryItemSearch itemSearch;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Item drill = makeItem(1L, "Дрель", "Дрель аккумуляторная", true);
+    private final Item screwdriver = makeItem(2L, "Шуруповерт", "Почти как дрель", true);
+    private final Item hammer = makeItem(3L, "Молоток", "Забивает гвозди", true);
+
+    private static Item makeItem(Long id, String name, String description, boolean available) {
+        return Item.builder().id(id).name(name).description(description).available(available).build();
+    }
+
+    private static ItemSearchView makeView(Item item) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Long getRequestId() {
+                return item.getRequest() == null ? null : item.getRequest().getId();
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAvailableAfter(any(), eq(0L)))
+                .thenReturn(List.of(makeView(drill), makeView(screwdriver), makeView(hammer)));
+        itemSearch = new InMemoryItemSearch(itemRepository, meterRegistry);
+        itemSearch.rebuild();
+    }
+
+    @Test
+    void search_whenQueryIsSubstring_thenReturnAvailableItemsRankedByNameFirst() {
+        List<Item> result = itemSearch.search("дРеЛ", PageRequest.of(0, 10));
+
+        assertThat(result).containsExactly(drill, screwdriver);
+        verify(itemRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    void search_whenQueryIsShorterThanGram_thenScanAllDocuments() {
+        List<Item> result = itemSearch.search("ок", PageRequest.of(0, 10));
+
+        assertThat(result).containsExactly(hammer);
+    }
+
+    @Test
+    void search_whenPageIsBeyondResults_thenReturnEmptyList() {
+        List<Item> result = itemSearch.search("дрель", PageRequest.of(1, 2));
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void rebuild_whenCalled_thenPublishIndexMetrics() {
+        assertThat(meterRegistry.get("shareit.search.index.documents").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("shareit.search.index.grams").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("shareit.search.index.build").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_whenItemsChangeWhileDatabaseIsRead_thenChangesAreKept() {
+        when(itemRepository.findAvailableAfter(any(), eq(0L))).thenAnswer(invocation -> {
+            itemSearch.index(makeItem(4L, "Лобзик", "Пилит фигурно", true));
+            itemSearch.index(makeItem(3L, "Молоток", "Забивает гвозди", false));
+            return List.of(makeView(drill), makeView(screwdriver), makeView(hammer));
+        });
+
+        itemSearch.rebuild();
+
+        assertThat(itemSearch.search("лобз", PageRequest.of(0, 10))).extracting(Item::getId).containsExactly(4L);
+        assertThat(itemSearch.search("молот", PageRequest.of(0, 10))).isEmpty();
+        assertThat(itemSearch.search("дрел", PageRequest.of(0, 10))).containsExactly(drill, screwdriver);
+    }
+
+    @Test
+    void index_whenUnavailableItemBecomesAvailable_thenItIsFound() {
+        itemSearch.index(makeItem(4L, "Дрель", "Починили", true));
+
+        assertThat(itemSearch.search("почин", PageRequest.of(0, 10))).extracting(Item::getId).containsExactly(4L);
+    }
+
+    @Test
+    void index_whenItemUpdated_thenOldTextIsNoLongerFound() {
+        Item renamed = makeItem(3L, "Кувалда", "Как молоток но побольше", true);
+
+        itemSearch.index(renamed);
+
+        assertThat(itemSearch.search("кувал", PageRequest.of(0, 10))).hasSize(1);
+        assertThat(itemSearch.search("забивает", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_thenItIsNotFound() {
+        itemSearch.index(makeItem(1L, "Дрель", "Дрель аккумуляторная", false));
+
+        assertThat(itemSearch.search("аккумулятор", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void index_whenIdIsBeyondIntRange_thenItemIsIndexedAndFound() {
+        long id = Integer.MAX_VALUE + 10L;
+
+        itemSearch.index(makeItem(id, "Перфоратор", "Большой", true));
+
+        assertThat(itemSearch.search("перфор", PageRequest.of(0, 10))).extracting(Item::getId).containsExactly(id);
+    }
+
+    @Test
+    void index_whenItemHasRequest_thenFoundItemKeepsRequestId() {
+        Item item = makeItem(5L, "Стремянка", "Складная", true);
+        item.setRequest(ItemRequest.builder().id(7L).build());
+
+        itemSearch.index(item);
+
+        assertThat(itemSearch.search("стремян", PageRequest.of(0, 10)))
+                .extracting(found -> found.getRequest().getId()).containsExactly(7L);
+    }
+
+    @Test
+    void remove_whenItemsRemoved_thenTheyAreNotFoundAndOrdinalsAreReused() {
+        itemSearch.remove(List.of(1L, 2L));
+        itemSearch.index(makeItem(6L, "Дрель", "Новая", true));
+
+        assertThat(itemSearch.search("дрел", PageRequest.of(0, 10))).extracting(Item::getId).containsExactly(6L);
+        assertThat(meterRegistry.get("shareit.search.index.documents").gauge().value()).isEqualTo(2);
+    }
+}
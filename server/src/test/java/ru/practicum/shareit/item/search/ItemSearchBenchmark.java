@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the JPQL LIKE search with the tsvector and pg_trgm backed native searches.
+ * Run with {@code mvn -Pbenchmark test -pl server -Dbenchmark.spring.profile=default}
+ * against a scratch PostgreSQL database; under the H2 test profile the tsvector path is skipped
+ * and the other two scan the table.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ItemSearchBenchmark {
+
+    private static final String[] NAMES = {"Дрель", "Молоток", "Шуруповерт", "Пила", "Лобзик", "Стремянка"};
+    private static final String[] DESCRIPTIONS = {"аккумуляторная", "ударная", "складная", "ручная", "сетевая"};
+    private static final String[] QUERIES = {"дрел", "аккум", "ток", "лобз", "ная", "стремянка 42", "77777"};
+    private static final int BATCH = 10_000;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long ownerId;
+
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000})
+    void compareSearchPaths(int itemCount) {
+        seed(itemCount);
+        jdbcTemplate.execute("analyze");
+
+        boolean postgres = isPostgres();
+        TrigramItemSearch trigramItemSearch = new TrigramItemSearch(itemRepository, jdbcTemplate);
+        for (String query : QUERIES) {
+            double jpql = measure(query, (page, text) -> itemRepository.search(page, text));
+            double fullText = postgres
+                    ? measure(query, (page, text) -> itemRepository.fullTextSearch(page, text))
+                    : Double.NaN;
+            double trigram = postgres
+                    ? measure(query, (page, text) -> trigramItemSearch.search(text, page))
+                    : measure(query, (page, text) -> itemRepository.trigramSearch(page, text));
+
+            log.info("Поиск '{}' по {} предметам: JPQL - {} мс, tsvector - {} мс, pg_trgm - {} мс", query, itemCount,
+                    String.format("%.2f", jpql), String.format("%.2f", fullText), String.format("%.2f", trigram));
+        }
+        assertThat(itemRepository.trigramSearch(PageRequest.of(0, 10), "дрел")).isNotEmpty();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (ownerId != null) {
+            jdbcTemplate.update("delete from items where user_id = ?", ownerId);
+            jdbcTemplate.update("delete from users where id = ?", ownerId);
+        }
+    }
+
+    private double measure(String query, BiFunction<PageRequest, String, List<Item>> search) {
+        PageRequest page = PageRequest.of(0, 10);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.execute(status -> search.apply(page, query));
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            transaction.execute(status -> search.apply(page, query));
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    private void seed(int itemCount) {
+        jdbcTemplate.update("insert into users (name, email) values ('benchmark', ?)",
+                "benchmark" + System.nanoTime() + "@mail.ru");
+        ownerId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < itemCount; i++) {
+            batch.add(new Object[]{ownerId,
+                    NAMES[random.nextInt(NAMES.length)] + " " + i,
+                    DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)] + " " + random.nextInt(1000),
+                    random.nextInt(10) > 0});
+            if (batch.size() == BATCH) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into items (user_id, name, description, available) values (?, ?, ?, ?)",
+                batch);
+        batch.clear();
+    }
+}
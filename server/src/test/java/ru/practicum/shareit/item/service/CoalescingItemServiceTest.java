@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.ModelNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingItemServiceTest {
+
+    private static final long ITEM_ID = 1L;
+    private static final long OWNER_ID = 2L;
+    private static final long USER_ID = 3L;
+
+    @Mock
+    private ItemServiceImpl itemServiceImpl;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private CoalescingItemService itemService;
+
+    @BeforeEach
+    void setUp() {
+        itemService = new CoalescingItemService(itemServiceImpl, itemRepository, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), 100);
+    }
+
+    private ItemDtoResponse makeResponse(String name) {
+        return ItemDtoResponse.builder()
+                .id(ITEM_ID)
+                .name(name)
+                .build();
+    }
+
+    @Test
+    void getById_whenConcurrentReadsOfSameItem_thenItemIsLoadedOnce() throws Exception {
+        int readers = 8;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemRepository.findOwnerIdById(ITEM_ID)).thenReturn(Optional.of(OWNER_ID));
+        when(itemServiceImpl.getById(ITEM_ID, USER_ID)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return makeResponse("hammer");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        List<Future<ItemDtoResponse>> futures = new ArrayList<>();
+
+        futures.add(executor.submit(() -> itemService.getById(ITEM_ID, USER_ID)));
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < readers; i++) {
+            futures.add(executor.submit(() -> itemService.getById(ITEM_ID, USER_ID)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<ItemDtoResponse> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS).getName()).isEqualTo("hammer");
+        }
+        executor.shutdown();
+
+        verify(itemServiceImpl, times(1)).getById(ITEM_ID, USER_ID);
+    }
+
+    @Test
+    void getById_whenItemWasReadRecently_thenReturnCachedPage() {
+        when(itemRepository.findOwnerIdById(ITEM_ID)).thenReturn(Optional.of(OWNER_ID));
+        when(itemServiceImpl.getById(ITEM_ID, USER_ID)).thenReturn(makeResponse("hammer"));
+
+        itemService.getById(ITEM_ID, USER_ID);
+        ItemDtoResponse result = itemService.getById(ITEM_ID, 4L);
+
+        assertThat(result.getName()).isEqualTo("hammer");
+        verify(itemServiceImpl, times(1)).getById(anyLong(), anyLong());
+        verify(itemRepository, times(1)).findOwnerIdById(ITEM_ID);
+    }
+
+    @Test
+    void getById_whenOwnerAndOtherUserRead_thenPagesAreLoadedSeparately() {
+        when(itemRepository.findOwnerIdById(ITEM_ID)).thenReturn(Optional.of(OWNER_ID));
+        when(itemServiceImpl.getById(ITEM_ID, OWNER_ID)).thenReturn(makeResponse("owner page"));
+        when(itemServiceImpl.getById(ITEM_ID, USER_ID)).thenReturn(makeResponse("public page"));
+
+        assertThat(itemService.getById(ITEM_ID, OWNER_ID).getName()).isEqualTo("owner page");
+        assertThat(itemService.getById(ITEM_ID, USER_ID).getName()).isEqualTo("public page");
+        assertThat(itemService.getById(ITEM_ID, OWNER_ID).getName()).isEqualTo("owner page");
+    }
+
+    @Test
+    void getById_whenItemChanged_thenPageIsLoadedAgain() {
+        when(itemRepository.findOwnerIdById(ITEM_ID)).thenReturn(Optional.of(OWNER_ID));
+        when(itemServiceImpl.getById(ITEM_ID, USER_ID))
+                .thenReturn(makeResponse("hammer"), makeResponse("new hammer"));
+
+        itemService.getById(ITEM_ID, USER_ID);
+        itemService.onItemChanged(new ItemChangedEvent(ITEM_ID, ItemChangedEvent.Kind.COMMENT));
+        ItemDtoResponse result = itemService.getById(ITEM_ID, USER_ID);
+
+        assertThat(result.getName()).isEqualTo("new hammer");
+        verify(itemServiceImpl, times(2)).getById(ITEM_ID, USER_ID);
+    }
+
+    @Test
+    void getById_whenLoadingFails_thenExceptionIsNotCached() {
+        when(itemRepository.findOwnerIdById(ITEM_ID)).thenReturn(Optional.of(OWNER_ID));
+        when(itemServiceImpl.getById(ITEM_ID, USER_ID))
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenReturn(makeResponse("hammer"));
+
+        assertThatThrownBy(() -> itemService.getById(ITEM_ID, USER_ID))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(itemService.getById(ITEM_ID, USER_ID).getName()).isEqualTo("hammer");
+    }
+
+    @Test
+    void getById_whenItemDoesNotExist_thenThrowModelNotFoundException() {
+        when(itemRepository.findOwnerIdById(ITEM_ID)).thenReturn(Optional.empty());
+        when(itemServiceImpl.getById(ITEM_ID, USER_ID)).thenThrow(new ModelNotFoundException("not found"));
+
+        assertThatThrownBy(() -> itemService.getById(ITEM_ID, USER_ID))
+                .isInstanceOf(ModelNotFoundException.class);
+    }
+}
@@ -7,11 +7,14 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.InvalidBookingException;
 import ru.practicum.shareit.exception.ModelNotFoundException;
@@ -20,10 +23,16 @@ import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentRequest;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.comment.service.CommentPermissionChecker;
+import ru.practicum.shareit.item.comment.service.CommentWriteBehind;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -34,6 +43,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -51,6 +61,18 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private RequestRepository requestRepository;
+    @Mock
+    private ItemSearch itemSearch;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CommentPermissionChecker commentPermissionChecker;
+    @Mock
+    private CommentWriteBehind commentWriteBehind;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @InjectMocks
     private ItemServiceImpl itemService;
     @Captor
@@ -79,7 +101,7 @@ class ItemServiceImplTest {
         Item item = Item.builder().id(1L).name("Item").description("some item").available(true).owner(user).build();
         ItemDto itemDto = ItemDto.builder().id(1L).name("Item").description("some item").available(true).build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.save(item)).thenReturn(item);
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto savedItem = itemService.save(userId, itemDto);
 
@@ -88,6 +110,9 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).save(itemArgumentCaptor.capture());
         Item capturedItem = itemArgumentCaptor.getValue();
         assertThat(capturedItem.getOwner()).isEqualTo(user);
+        assertThat(capturedItem.getId()).isNull();
+        verify(itemSearch, times(1)).index(item);
+        verify(eventPublisher, times(1)).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -114,7 +139,7 @@ class ItemServiceImplTest {
                 .build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(requestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
-        when(itemRepository.save(item)).thenReturn(item);
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto savedItem = itemService.save(userId, itemDto);
 
@@ -148,6 +173,125 @@ class ItemServiceImplTest {
         verifyNoInteractions(itemRepository);
     }
 
+    @Test
+    void saveAll_whenUserNotExist_thenThrowModelNotFound() {
+        List<ItemDto> dtos = List.of(ItemDto.builder().name("Item").description("some item").available(true).build());
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> itemService.saveAll(1L, dtos))
+                .isInstanceOf(ModelNotFoundException.class)
+                .hasMessage("Пользователь с id - 1 не найден!");
+
+        verifyNoInteractions(requestRepository, itemRepository, transactionTemplate);
+    }
+
+    @Test
+    void saveAll_whenRequestIsMissing_thenReportItAndSaveTheRest() {
+        User user = new User(1L, "User", "user@mail.ru");
+        ItemRequest itemRequest = ItemRequest.builder().id(1L).description("some request").build();
+        List<ItemDto> dtos = List.of(
+                ItemDto.builder().name("first").description("some item").available(true).requestId(1L).build(),
+                ItemDto.builder().name("second").description("some item").available(true).requestId(2L).build(),
+                ItemDto.builder().name("third").description("some item").available(true).requestId(1L).build(),
+                ItemDto.builder().name("fourth").description("some item").available(true).build());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(requestRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(itemRequest));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            long id = 10;
+            for (Item item : items) {
+                item.setId(id++);
+            }
+            return items;
+        });
+
+        List<ItemBatchResult> results = itemService.saveAll(1L, dtos);
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).getItem()).extracting(ItemDto::getId, ItemDto::getName, ItemDto::getRequestId)
+                .containsExactly(10L, "first", 1L);
+        assertThat(results.get(1).getItem()).isNull();
+        assertThat(results.get(1).getError()).isEqualTo("Запрос с id - 2 не найден!");
+        assertThat(results.get(2).getItem()).extracting(ItemDto::getId, ItemDto::getName)
+                .containsExactly(11L, "third");
+        assertThat(results.get(3).getItem()).extracting(ItemDto::getId, ItemDto::getRequestId)
+                .containsExactly(12L, null);
+        verify(userRepository, times(1)).findById(1L);
+        verify(requestRepository, times(1)).findAllById(anyCollection());
+        verify(requestRepository, never()).findById(anyLong());
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(itemSearch, times(3)).index(any(Item.class));
+        verify(eventPublisher, times(3)).publishEvent(any(ItemChangedEvent.class));
+    }
+
+    @Test
+    void saveAll_whenChunkFails_thenReportItsItemsAndKeepOtherChunks() {
+        User user = new User(1L, "User", "user@mail.ru");
+        List<ItemDto> dtos = new ArrayList<>();
+        for (int i = 0; i < ItemServiceImpl.BATCH_CHUNK_SIZE + 1; i++) {
+            dtos.add(ItemDto.builder().name("item" + i).description("some item").available(true).build());
+        }
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new CannotCreateTransactionException("connection refused"))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ItemBatchResult> results = itemService.saveAll(1L, dtos);
+
+        assertThat(results).hasSize(ItemServiceImpl.BATCH_CHUNK_SIZE + 1);
+        assertThat(results.subList(0, ItemServiceImpl.BATCH_CHUNK_SIZE)).extracting(ItemBatchResult::getError)
+                .containsOnly("Не удалось сохранить предмет, повторите запрос позже!");
+        assertThat(results.get(ItemServiceImpl.BATCH_CHUNK_SIZE).getItem().getName())
+                .isEqualTo("item" + ItemServiceImpl.BATCH_CHUNK_SIZE);
+        verifyNoInteractions(requestRepository);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void saveAll_whenChunkFailsUnexpectedly_thenReportItsItems() {
+        User user = new User(1L, "User", "user@mail.ru");
+        List<ItemDto> dtos = List.of(ItemDto.builder().name("item").description("some item").available(true).build());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("unexpected"));
+
+        List<ItemBatchResult> results = itemService.saveAll(1L, dtos);
+
+        assertThat(results).extracting(ItemBatchResult::getError)
+                .containsExactly("Не удалось сохранить предмет, повторите запрос позже!");
+        verifyNoInteractions(itemSearch, eventPublisher);
+    }
+
+    @Test
+    void saveAll_whenIndexingFails_thenStillReportStoredItems() {
+        User user = new User(1L, "User", "user@mail.ru");
+        List<ItemDto> dtos = List.of(
+                ItemDto.builder().id(99L).name("first").description("some item").available(true).build(),
+                ItemDto.builder().name("second").description("some item").available(true).build());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            assertThat(items).extracting(Item::getId).containsOnlyNulls();
+            long id = 10;
+            for (Item item : items) {
+                item.setId(id++);
+            }
+            return items;
+        });
+        doThrow(new ArithmeticException("integer overflow")).doNothing().when(itemSearch).index(any(Item.class));
+
+        List<ItemBatchResult> results = itemService.saveAll(1L, dtos);
+
+        assertThat(results).extracting(result -> result.getItem().getId()).containsExactly(10L, 11L);
+        assertThat(results).extracting(ItemBatchResult::getError).containsOnlyNulls();
+        verify(itemSearch, times(2)).index(any(Item.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ItemChangedEvent.class));
+    }
+
     @Test
     void update_whenItemNotExist_thenThrowModeNotFound() {
         long userId = 1L;
@@ -201,7 +345,7 @@ class ItemServiceImplTest {
         ItemDto updatedItem = itemService.update(userId, itemId, itemDto);
 
         assertThat(updatedItem.getName()).isEqualTo("Item");
-
+        verify(eventPublisher, times(1)).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -224,10 +368,10 @@ class ItemServiceImplTest {
         comments.add(new Comment(3L, "comment3", item, user4, LocalDateTime.now().plusDays(2L)));
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findTopByItemIdAndStatusAndStartIsAfterOrderByStart(
-                eq(itemId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(nextBooking);
-        when(bookingRepository.findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(
-                eq(itemId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(lastBooking);
+        when(itemBookingSummaryService.findFresh(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(bookingRepository.findLastAndNextApprovedByItemId(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(List.of(makeItemBookingView(1L, itemId, 3L, "NEXT"),
+                        makeItemBookingView(2L, itemId, 4L, "LAST")));
         when(commentRepository.findByItemId(itemId)).thenReturn(comments);
 
         ItemDtoResponse response = itemService.getById(itemId, userId);
@@ -237,6 +381,34 @@ class ItemServiceImplTest {
         assertThat(response.getLastBooking().getBookerId()).isEqualTo(4L);
         assertThat(response.getNextBooking()).isEqualTo(nextBooking);
         assertThat(response.getName()).isEqualTo("Item");
+        verify(bookingRepository, times(1)).findLastAndNextApprovedByItemId(eq(itemId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getById_whenUserIsOwnerAndSummaryIsFresh_thenReturnBookingsFromSummary() {
+        long userId = 1L;
+        long itemId = 1L;
+        User user = new User(1L, "User", "user@mail.ru");
+        Item item = Item.builder().id(1L).name("Item")
+                .owner(user)
+                .description("some item")
+                .available(true)
+                .build();
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(itemId)
+                .lastBookingId(2L)
+                .lastBookerId(4L)
+                .build();
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemBookingSummaryService.findFresh(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(summary));
+        when(commentRepository.findByItemId(itemId)).thenReturn(Collections.emptyList());
+
+        ItemDtoResponse response = itemService.getById(itemId, userId);
+
+        assertThat(response.getLastBooking()).isEqualTo(new BookingDtoShort(2L, 4L));
+        assertThat(response.getNextBooking()).isNull();
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
@@ -261,6 +433,31 @@ class ItemServiceImplTest {
     }
 
 
+    @Test
+    void getById_whenCommentsArePending_thenReturnThemAfterStoredComments() {
+        long userId = 1L;
+        long itemId = 1L;
+        User owner = new User(2L, "User", "user@mail.ru");
+        User author = new User(3L, "Author", "author@mail.ru");
+        Item item = Item.builder().id(itemId).name("Item")
+                .owner(owner)
+                .description("some item")
+                .available(true)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(commentWriteBehind.pending(itemId)).thenReturn(List.of(
+                new CommentDto(2L, itemId, "Author", "written meanwhile", now),
+                new CommentDto(3L, itemId, "Author", "pending", now)));
+        when(commentRepository.findByItemId(itemId)).thenReturn(List.of(
+                new Comment(1L, "stored", item, author, now),
+                new Comment(2L, "written meanwhile", item, author, now)));
+
+        ItemDtoResponse response = itemService.getById(itemId, userId);
+
+        assertThat(response.getComments()).extracting(CommentDto::getId).containsExactly(1L, 2L, 3L);
+    }
+
     @Test
     void getById_whenItemNotExist_thenThrowModelNotFound() {
         long userId = 1L;
@@ -298,16 +495,25 @@ class ItemServiceImplTest {
         items.add(item);
         items.add(item2);
         items.add(item3);
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(itemRepository.findById(2L)).thenReturn(Optional.of(item2));
-        when(itemRepository.findById(3L)).thenReturn(Optional.of(item3));
-        when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.emptyList());
+        User booker = new User(3L, "Booker", "booker@mail.ru");
+        Comment comment = new Comment(1L, "comment", item2, booker, LocalDateTime.now());
+        ItemBookingView nextBooking = makeItemBookingView(5L, 1L, 3L, "NEXT");
+        ItemBookingView lastBooking = makeItemBookingView(4L, 1L, 3L, "LAST");
         when(itemRepository.findAllByOwnerIdOrderById(PageRequest.of(0, 10,
                 Sort.by(Sort.Direction.ASC, "id")), userId)).thenReturn(items);
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBooking, lastBooking));
+        when(commentRepository.findByItemIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(comment));
 
         List<ItemDtoResponse> responses = itemService.getByUserId(userId, 0, 10);
 
         assertThat(responses.size()).isEqualTo(3);
+        assertThat(responses.get(0).getNextBooking()).isEqualTo(new BookingDtoShort(5L, 3L));
+        assertThat(responses.get(0).getLastBooking()).isEqualTo(new BookingDtoShort(4L, 3L));
+        assertThat(responses.get(0).getComments()).isEmpty();
+        assertThat(responses.get(1).getNextBooking()).isNull();
+        assertThat(responses.get(1).getComments().size()).isEqualTo(1);
+        verify(itemRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -352,7 +558,7 @@ class ItemServiceImplTest {
                 .build();
         List<Item> items = List.of(item, item2);
 
-        when(itemRepository.search(PageRequest.of(from / size, size), query)).thenReturn(items);
+        when(itemSearch.search(query, PageRequest.of(from / size, size))).thenReturn(items);
 
         List<ItemDto> itemsDto = itemService.search(query, from, size);
 
@@ -366,7 +572,7 @@ class ItemServiceImplTest {
         int size = 10;
 
 
-        when(itemRepository.search(PageRequest.of(from / size, size), query)).thenReturn(Collections.emptyList());
+        when(itemSearch.search(query, PageRequest.of(from / size, size))).thenReturn(Collections.emptyList());
 
         List<ItemDto> itemsDto = itemService.search(query, from, size);
 
@@ -374,58 +580,18 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void saveComment_whenItemDoesNotExist_thenThrowModelNotFoundException() {
-        long itemId = 1L;
-        long userId = 1L;
-        CommentRequest commentRequest = new CommentRequest();
-        commentRequest.setText("description");
-
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> itemService.saveComment(itemId, userId, commentRequest))
-                .isInstanceOf(ModelNotFoundException.class)
-                .hasMessage("Предмет с id - 1 не найден!");
-    }
-
-    @Test
-    void saveComment_whenUserDoesNotExist_thenThrowModelNotFoundException() {
+    void saveComment_whenUserCannotComment_thenThrowAndDoNotAcceptComment() {
         long itemId = 1L;
         long userId = 1L;
         CommentRequest commentRequest = new CommentRequest();
         commentRequest.setText("comment");
-        User user = new User(2L, "User", "user@mail.ru");
-        Item item = Item.builder().id(1L).name("Item")
-                .owner(user)
-                .description("some item")
-                .available(true)
-                .build();
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> itemService.saveComment(itemId, userId, commentRequest))
-                .isInstanceOf(ModelNotFoundException.class)
-                .hasMessage("Пользователь с id - 1 не найден!");
-    }
+        when(commentPermissionChecker.authorName(itemId, userId)).thenThrow(new InvalidBookingException(
+                "Пользователь с id - 1 предмет с id - 1 ранее не бронировал!"));
 
-    @Test
-    void saveComment_whenUserNeverBookedItem_thenThrowInvalidBookingException() {
-        long itemId = 1L;
-        long userId = 1L;
-        CommentRequest commentRequest = new CommentRequest();
-        commentRequest.setText("comment");
-        User user = new User(2L, "User", "user@mail.ru");
-        Item item = Item.builder().id(1L).name("Item")
-                .owner(user)
-                .description("some item")
-                .available(true)
-                .build();
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findTopByItemIdAndBookerIdAndStatusAndEndIsBefore(eq(itemId), eq(userId),
-                eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
         assertThatThrownBy(() -> itemService.saveComment(itemId, userId, commentRequest))
                 .isInstanceOf(InvalidBookingException.class)
                 .hasMessage("Пользователь с id - 1 предмет с id - 1 ранее не бронировал!");
+        verifyNoInteractions(commentWriteBehind, eventPublisher);
     }
 
     @Test
@@ -434,29 +600,43 @@ class ItemServiceImplTest {
         long userId = 1L;
         CommentRequest commentRequest = new CommentRequest();
         commentRequest.setText("comment");
-
-        User commenter = new User(userId, "Commenter", "Commenter@mail.ru");
-        User owner = new User(2L, "User", "user@mail.ru");
-        Item item = Item.builder().id(1L).name("Item")
-                .owner(owner)
-                .description("some item")
-                .available(true)
-                .build();
-        Comment comment = Comment.builder()
-                .author(commenter)
-                .text("comment")
-                .item(item)
-                .id(1L)
-                .build();
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(commenter));
-        when(bookingRepository.findTopByItemIdAndBookerIdAndStatusAndEndIsBefore(eq(itemId), eq(userId),
-                eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
-                .thenReturn(Optional.of(new Booking()));
-        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+        CommentDto comment = new CommentDto(100L, itemId, "Commenter", "comment", LocalDateTime.now());
+        when(commentPermissionChecker.authorName(itemId, userId)).thenReturn("Commenter");
+        when(commentWriteBehind.accept(itemId, userId, "Commenter", "comment")).thenReturn(comment);
 
         CommentDto savedComment = itemService.saveComment(itemId, userId, commentRequest);
 
         assertThat(savedComment.getAuthorName()).isEqualTo("Commenter");
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(itemId, ItemChangedEvent.Kind.COMMENT));
+        verifyNoInteractions(commentRepository);
+    }
+
+    private ItemBookingView makeItemBookingView(Long id, Long itemId, Long bookerId, String kind) {
+        return new ItemBookingView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return null;
+            }
+
+            @Override
+            public String getKind() {
+                return kind;
+            }
+        };
     }
-}
\ No newline at end of file
+}
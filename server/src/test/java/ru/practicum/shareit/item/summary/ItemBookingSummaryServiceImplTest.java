@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ItemBookingSummaryServiceImpl.class)
+class ItemBookingSummaryServiceImplTest {
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private Item makeItem(User owner) {
+        return em.persist(new Item(null, owner, "hammer", "knock knock", true, null));
+    }
+
+    private Booking makeBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return em.persist(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .owner(item.getOwner())
+                .status(status)
+                .build());
+    }
+
+    @Test
+    void refresh_whenItemHasApprovedBookings_thenStoreLastAndNextUntilNextStart() {
+        User owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        User booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        Item item = makeItem(owner);
+        Booking last = makeBooking(item, booker, now.minusDays(1), BookingStatus.APPROVED);
+        makeBooking(item, booker, now.plusHours(1), BookingStatus.WAITING);
+        Booking next = makeBooking(item, booker, now.plusDays(1), BookingStatus.APPROVED);
+
+        summaryService.refresh(item.getId());
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId()).isEqualTo(last.getId());
+        assertThat(summary.getNextBookingId()).isEqualTo(next.getId());
+        assertThat(summary.getNextBookerId()).isEqualTo(booker.getId());
+        assertThat(summary.getRefreshAt()).isEqualTo(next.getStart());
+        assertThat(summaryService.findFresh(item.getId(), now)).isPresent();
+        assertThat(summaryService.findFresh(item.getId(), next.getStart())).isEmpty();
+    }
+
+    @Test
+    void refreshStale_whenSummaryMissingOrNextBookingStarted_thenRecompute() {
+        User owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        User booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        Item withoutSummary = makeItem(owner);
+        Item started = makeItem(owner);
+        Booking current = makeBooking(started, booker, now.minusMinutes(30), BookingStatus.APPROVED);
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(started.getId())
+                .nextBookingId(current.getId())
+                .nextBookerId(booker.getId())
+                .refreshAt(current.getStart())
+                .build());
+
+        int refreshed = summaryService.refreshStale(100);
+
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(summaryRepository.findById(withoutSummary.getId()).orElseThrow().isFresh(now)).isTrue();
+        ItemBookingSummary summary = summaryRepository.findById(started.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId()).isEqualTo(current.getId());
+        assertThat(summary.getNextBookingId()).isNull();
+        assertThat(summary.getRefreshAt()).isNull();
+        assertThat(summaryService.refreshStale(100)).isZero();
+    }
+}
@@ -15,6 +15,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,13 +35,15 @@ class RequestServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
     @InjectMocks
     private RequestServiceImpl requestService;
 
     @Test
     void findAllByRequester_whenNoUserFound_thenThrowModelNotFoundException() {
         long userId = 1L;
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceChecker.exists(anyLong())).thenReturn(false);
 
         assertThatThrownBy(() -> requestService.findAllByRequester(userId))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -63,9 +66,9 @@ class RequestServiceImplTest {
                 "Knock knock",
                 true,
                 1L);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceChecker.exists(1L)).thenReturn(true);
         when(requestRepository.findByRequesterId(userId)).thenReturn(List.of(request));
-        when(itemRepository.findByRequestId(item.getId())).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
 
         List<ItemRequestDto> requestDtos = requestService.findAllByRequester(1L);
 
@@ -91,18 +94,37 @@ class RequestServiceImplTest {
                 1L);
         when(requestRepository.findAllByRequesterIdNot(PageRequest.of(0, 10,
                 Sort.by(Sort.Direction.DESC, "created")), 2L)).thenReturn(requests);
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         List<ItemRequestDto> result = requestService.findAll(0, 10, 2L);
 
         assertThat(result.size()).isEqualTo(1);
         assertThat(result.get(0).getItems().get(0)).isEqualTo(item);
     }
 
+    @Test
+    void findAll_whenRequestHasNoItems_thenReturnEmptyItemsList() {
+        long userId = 1L;
+        User user = new User(userId, "user", "user@yandex.ru");
+        ItemRequest request = new ItemRequest(
+                1L,
+                "Need hammer",
+                LocalDateTime.of(2023, 8, 11, 10, 30, 15),
+                user);
+        when(requestRepository.findAllByRequesterIdNot(PageRequest.of(0, 10,
+                Sort.by(Sort.Direction.DESC, "created")), 2L)).thenReturn(List.of(request));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of());
+
+        List<ItemRequestDto> result = requestService.findAll(0, 10, 2L);
+
+        assertThat(result.size()).isEqualTo(1);
+        assertThat(result.get(0).getItems()).isEmpty();
+    }
+
     @Test
     void findById_ifUserNotFound_thenThrowModelNotFoundException() {
         long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistenceChecker.exists(userId)).thenReturn(false);
 
         assertThatThrownBy(() -> requestService.findById(1L, userId))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -112,8 +134,7 @@ class RequestServiceImplTest {
     @Test
     void findById_ifRequestNotFound_thenThrowModelNotFoundException() {
         long userId = 1L;
-        User user = new User(userId, "user", "user@yandex.ru");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
         when(requestRepository.findById(1L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> requestService.findById(1L, userId))
                 .isInstanceOf(ModelNotFoundException.class)
@@ -135,7 +156,7 @@ class RequestServiceImplTest {
                 "Knock knock",
                 true,
                 1L);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceChecker.exists(userId)).thenReturn(true);
         when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
         when(itemRepository.findByRequestId(item.getId())).thenReturn(List.of(item));
 
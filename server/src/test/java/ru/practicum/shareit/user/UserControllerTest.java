@@ -56,6 +56,25 @@ class UserControllerTest {
         assertThat(result).isEqualTo(objectMapper.writeValueAsString(userDto));
     }
 
+    @Test
+    void saveAll_whenUserDtosAreValid_thenSaveAllWithStatusCreated() throws Exception {
+        List<UserDto> userDtos = List.of(makeDto(1L), makeDto(2L));
+        when(userService.saveAll(userDtos)).thenReturn(userDtos);
+
+        String result = mockMvc.perform(post("/users/batch")
+                        .content(objectMapper.writeValueAsString(userDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(result).isEqualTo(objectMapper.writeValueAsString(userDtos));
+        verify(userService, times(1)).saveAll(userDtos);
+    }
+
     @Test
     void update_whenUserDtoIsValid_thenStatusIsOk() throws Exception {
         Long userId = 1L;
@@ -21,14 +21,14 @@ class UserMapperTest {
 
 
     @Test
-    void dtoToUser_whenInvoked_thenReturnUserWithProperValues() {
+    void dtoToUser_whenInvoked_thenReturnUserWithProperValuesAndNoId() {
         UserDto userDto = makeDto(1L);
 
         User user = UserMapper.dtoToUser(userDto);
 
         assertThat(user.getEmail()).isEqualTo(userDto.getEmail());
         assertThat(user.getName()).isEqualTo(userDto.getName());
-        assertThat(user.getId()).isEqualTo(userDto.getId());
+        assertThat(user.getId()).isNull();
     }
 
     @Test
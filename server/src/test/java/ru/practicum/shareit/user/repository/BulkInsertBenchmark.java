@@ -0,0 +1,96 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures rows per second when importing users and their items: one transaction per row (the single-object
+ * endpoints), one transaction with a JDBC round trip per row (what IDENTITY ids forced) and one transaction with
+ * JDBC batches (sequence ids). Run with {@code mvn -Pbenchmark test -pl server -Dtest=BulkInsertBenchmark}, add
+ * {@code -Dbenchmark.spring.profile=default} to run against a scratch PostgreSQL database.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+class BulkInsertBenchmark {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+
+    @ParameterizedTest(name = "{0}, {1} строк")
+    @CsvSource({"per-request, 2000", "unbatched, 10000", "batched, 10000"})
+    void importUsersAndItems(String mode, int rows) {
+        prefix = "import." + mode + "." + System.nanoTime() + ".";
+        List<User> users = IntStream.range(0, rows)
+                .mapToObj(i -> new User(null, "import", prefix + i + "@mail.ru"))
+                .collect(Collectors.toList());
+        measure(mode, "пользователей", users, userRepository::saveAll);
+
+        List<Item> items = users.stream()
+                .map(user -> new Item(null, user, "hammer", "knock knock", true, null))
+                .collect(Collectors.toList());
+        measure(mode, "предметов", items, itemRepository::saveAll);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from items as i join users as u on u.id = i.user_id " +
+                "where u.email like ?", Integer.class, prefix + "%")).isEqualTo(rows);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from users where email like ?", prefix + "%");
+    }
+
+    private <T> void measure(String mode, String entities, List<T> rows, Consumer<List<T>> saveAll) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        if ("per-request".equals(mode)) {
+            rows.forEach(row -> transactionTemplate.executeWithoutResult(status -> saveAll.accept(List.of(row))));
+        } else {
+            transactionTemplate.executeWithoutResult(status -> {
+                if ("unbatched".equals(mode)) {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+                }
+                saveAll.accept(rows);
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.info("{}: {} {} - {} строк/с, подготовлено выражений - {}", mode, rows.size(), entities,
+                String.format("%.0f", rows.size() / seconds), statistics.getPrepareStatementCount());
+    }
+}
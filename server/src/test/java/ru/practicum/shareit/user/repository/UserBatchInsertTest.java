@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserBatchInsertTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    /**
+     * 120 rows take three sequence calls (blocks of 50) and three insert batches instead of 120 round trips.
+     */
+    @Test
+    void saveAll_whenManyUsersAndItems_thenIdsComeFromSequenceAndInsertsAreBatched() {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<User> users = userRepository.saveAll(IntStream.range(0, ROWS)
+                .mapToObj(i -> new User(null, "batch" + i, "batch" + i + "@mail.ru"))
+                .collect(Collectors.toList()));
+        em.flush();
+        long userStatements = statistics.getPrepareStatementCount();
+        List<Item> items = itemRepository.saveAll(users.stream()
+                .map(user -> new Item(null, user, "hammer", "knock knock", true, null))
+                .collect(Collectors.toList()));
+        em.flush();
+        long itemStatements = statistics.getPrepareStatementCount() - userStatements;
+
+        assertThat(users).extracting(User::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(items).extracting(Item::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(userStatements).isLessThanOrEqualTo(6);
+        assertThat(itemStatements).isLessThanOrEqualTo(6);
+    }
+}
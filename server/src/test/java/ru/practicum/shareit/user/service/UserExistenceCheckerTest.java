@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCheckerTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong time = new AtomicLong();
+    private UserExistenceChecker checker;
+
+    @BeforeEach
+    void setUp() {
+        checker = new UserExistenceChecker(userRepository, Duration.ofMinutes(1), Duration.ofSeconds(5),
+                100, time::get);
+    }
+
+    @Test
+    void exists_whenUserExists_thenProbeRepositoryOnceWithinPositiveTtl() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(checker.exists(1L)).isTrue();
+        time.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(checker.exists(1L)).isTrue();
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void exists_whenUserMissing_thenForgetAfterNegativeTtl() {
+        when(userRepository.existsById(1L)).thenReturn(false, true);
+
+        assertThat(checker.exists(1L)).isFalse();
+        assertThat(checker.exists(1L)).isFalse();
+        time.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(checker.exists(1L)).isTrue();
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void evict_whenCached_thenProbeRepositoryAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true, false);
+
+        assertThat(checker.exists(1L)).isTrue();
+        checker.evict(1L);
+        assertThat(checker.exists(1L)).isFalse();
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+}
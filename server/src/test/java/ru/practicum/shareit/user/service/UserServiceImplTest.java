@@ -5,12 +5,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import ru.practicum.shareit.exception.ModelNotFoundException;
+import ru.practicum.shareit.item.comment.service.CommentPermissionChecker;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +36,22 @@ class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private ItemSearch itemSearch;
+    @Mock
+    private CommentPermissionChecker commentPermissionChecker;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private User makeUser(long id) {
         return User.builder().id(id).name("user" + id).email("user" + id + "@yandex.ru").build();
@@ -37,12 +65,29 @@ class UserServiceImplTest {
     void save_whenUserValid_thenSaveUser() {
         User user = makeUser(1L);
         UserDto userDto = makeDto(1L);
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.save(any(User.class))).thenReturn(user);
 
         UserDto savedUser = userService.save(userDto);
 
         assertThat(savedUser).isEqualTo(userDto);
-        verify(userRepository, atLeastOnce()).save(user);
+        verify(userRepository, atLeastOnce()).save(argThat(toSave -> toSave.getId() == null));
+        verify(userExistenceChecker).evict(1L);
+    }
+
+    @Test
+    void saveAll_whenUsersValid_thenSaveAllInOneCall() {
+        List<User> users = List.of(makeUser(1L), makeUser(2L));
+        List<UserDto> userDtos = List.of(makeDto(1L), makeDto(2L));
+        when(userRepository.saveAll(anyList())).thenReturn(users);
+
+        List<UserDto> savedUsers = userService.saveAll(userDtos);
+
+        assertThat(savedUsers).isEqualTo(userDtos);
+        verify(userRepository, times(1)).saveAll(argThat((List<User> toSave) -> toSave.size() == 2
+                && toSave.stream().allMatch(user -> user.getId() == null)));
+        verify(userRepository, never()).save(any());
+        verify(userExistenceChecker).evict(1L);
+        verify(userExistenceChecker).evict(2L);
     }
 
     @Test
@@ -130,8 +175,39 @@ class UserServiceImplTest {
 
     @Test
     void deleteById_whenDeleted_thenDeleted() { // Просто о том, как я понимаю нейминг тестов.
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(itemRepository.findIdsByOwnerId(1L)).thenReturn(List.of(2L, 3L));
+        when(requestRepository.findIdsByRequesterId(1L)).thenReturn(List.of(4L));
+
         userService.deleteById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(itemSearch).remove(List.of(2L, 3L));
+        verify(cache).evict(Item.class, 2L);
+        verify(cache).evict(Item.class, 3L);
+        verify(cache).evict(ItemRequest.class, 4L);
+        verifyNoMoreInteractions(cache);
+        verify(userExistenceChecker).evict(1L);
+        verify(commentPermissionChecker).evict(1L, List.of(2L, 3L));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(2L, ItemChangedEvent.Kind.ITEM));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(3L, ItemChangedEvent.Kind.ITEM));
+    }
 
+    @Test
+    void deleteById_whenInTransaction_thenEvictAfterCommit() {
+        when(itemRepository.findIdsByOwnerId(1L)).thenReturn(List.of(2L));
+        when(requestRepository.findIdsByRequesterId(1L)).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteById(1L);
+            verifyNoInteractions(entityManagerFactory, commentPermissionChecker);
+
+            when(entityManagerFactory.getCache()).thenReturn(cache);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(cache).evict(Item.class, 2L);
+        verifyNoMoreInteractions(cache);
+        verify(commentPermissionChecker).evict(1L, List.of(2L));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserServiceIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User existing;
+    private List<UserDto> created = List.of();
+
+    @BeforeEach
+    void setUp() {
+        existing = userRepository.save(new User(null, "existing", "existing.user@mail.ru"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        created.forEach(dto -> userRepository.deleteById(dto.getId()));
+        userRepository.delete(existing);
+    }
+
+    @Test
+    void saveAll_whenDtoCarriesExistingId_thenCreateNewUserAndKeepExistingOne() {
+        UserDto withExistingId = UserDto.builder()
+                .id(existing.getId())
+                .name("intruder")
+                .email("intruder@mail.ru")
+                .build();
+
+        created = userService.saveAll(List.of(withExistingId));
+
+        assertThat(created).extracting(UserDto::getId).doesNotContain(existing.getId());
+        assertThat(userRepository.findById(existing.getId())).get()
+                .extracting(User::getName, User::getEmail)
+                .containsExactly("existing", "existing.user@mail.ru");
+        assertThat(userRepository.findById(created.get(0).getId())).get()
+                .extracting(User::getName).isEqualTo("intruder");
+    }
+}